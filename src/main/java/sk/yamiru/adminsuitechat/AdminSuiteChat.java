@@ -9,9 +9,14 @@ import sk.yamiru.adminsuitechat.commands.HelpMeCommand;
 import sk.yamiru.adminsuitechat.integrations.LuckPermsIntegration;
 import sk.yamiru.adminsuitechat.integrations.AdminSuiteChatExpansion;
 import sk.yamiru.adminsuitechat.listeners.ChatListener;
+import sk.yamiru.adminsuitechat.listeners.RecipientListener;
 import sk.yamiru.adminsuitechat.managers.*;
+import sk.yamiru.adminsuitechat.models.Settings;
 import sk.yamiru.adminsuitechat.utils.ColorUtils;
 import sk.yamiru.adminsuitechat.utils.MessageUtils;
+import sk.yamiru.adminsuitechat.utils.TimerWheel;
+
+import java.util.function.Supplier;
 
 public final class AdminSuiteChat extends JavaPlugin {
 
@@ -22,13 +27,24 @@ public final class AdminSuiteChat extends JavaPlugin {
     private ColorUtils colorUtils;
     private LogManager logManager;
     private AntiSpamManager antiSpamManager;
+    private DuplicateDetector duplicateDetector;
+    private RecipientIndex recipientIndex;
+    private DeliveryScheduler deliveryScheduler;
+    private ChatPipeline chatPipeline;
+    private final DebugTrace debugTrace = new DebugTrace(this);
+    private final ConsoleSink consoleSink = new ConsoleSink(this);
+    private final PlaceholderCache placeholderCache = new PlaceholderCache();
+    private TimerWheel expiryWheel;
     private LuckPermsIntegration luckPermsIntegration;
     private CommandRegistry commandRegistry;
     
+    // Replaced as a whole on reload, message handling only reads this snapshot
+    private volatile Settings settings;
+    
     private boolean placeholderAPIEnabled = false;
     private boolean luckPermsEnabled = false;
-    private boolean coloredConsole = true;
-    private boolean pluginEnabled = true;
+    private volatile boolean coloredConsole = true;
+    private volatile boolean pluginEnabled = true;
 
     @Override
     public void onEnable() {
@@ -36,6 +52,9 @@ public final class AdminSuiteChat extends JavaPlugin {
         
         // Save default config
         saveDefaultConfig();
+        settings = Settings.load(getConfig());
+        debugTrace.configure(settings);
+        placeholderCache.configure(settings);
         
         // Copy all language files
         copyLanguageFiles();
@@ -45,18 +64,27 @@ public final class AdminSuiteChat extends JavaPlugin {
         
         // Check console color setting
         coloredConsole = getConfig().getBoolean("settings.colored-console", true);
+        consoleSink.initialize();
         
         // Initialize utilities
         this.colorUtils = new ColorUtils(this);
         this.messageUtils = new MessageUtils(this);
         this.channelManager = new ChannelManager(this);
-        this.cooldownManager = new CooldownManager();
+        this.expiryWheel = new TimerWheel(1000, getLogger());
+        expiryWheel.start();
+        this.cooldownManager = new CooldownManager(expiryWheel);
         this.antiSpamManager = new AntiSpamManager(this);
+        this.duplicateDetector = new DuplicateDetector(this);
+        this.recipientIndex = new RecipientIndex(this);
+        this.deliveryScheduler = new DeliveryScheduler(this);
+        this.chatPipeline = new ChatPipeline(this);
         this.logManager = new LogManager(this);
         this.commandRegistry = new CommandRegistry(this);
         
         // Load configuration
         channelManager.loadChannels();
+        recipientIndex.rebuild();
+        deliveryScheduler.initialize();
         
         // Initialize integrations
         checkPlaceholderAPI();
@@ -69,6 +97,7 @@ public final class AdminSuiteChat extends JavaPlugin {
         if (getConfig().getBoolean("settings.use-channel-commands", true)) {
             commandRegistry.registerChannelCommands();
         }
+        commandRegistry.registerHelpMeCommands();
         
         // Register listeners
         registerListeners();
@@ -122,14 +151,31 @@ public final class AdminSuiteChat extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        // Unregister channel commands
+        // Unregister channel and HelpMe commands
         if (commandRegistry != null) {
             commandRegistry.unregisterAllCommands();
         }
         
-        // Rotate and compress logs on shutdown
-        if (logManager != null && getConfig().getBoolean("logging.rotation-enabled", true)) {
-            logManager.rotateAndCompress();
+        // Flush pending log entries, then rotate and compress logs on shutdown
+        if (logManager != null) {
+            logManager.shutdown();
+            
+            if (getConfig().getBoolean("logging.rotation-enabled", true)) {
+                logManager.rotateAndCompress();
+            }
+        }
+        
+        // Write queued console lines
+        consoleSink.shutdown();
+        
+        // Deliver queued broadcasts before shutting down
+        if (deliveryScheduler != null) {
+            deliveryScheduler.shutdown();
+        }
+        
+        // Stop recipient tracking
+        if (recipientIndex != null) {
+            recipientIndex.shutdown();
         }
         
         // Clear cooldowns
@@ -141,6 +187,14 @@ public final class AdminSuiteChat extends JavaPlugin {
         if (antiSpamManager != null) {
             antiSpamManager.clear();
         }
+        if (duplicateDetector != null) {
+            duplicateDetector.clear();
+        }
+        
+        // Stop expiring cooldowns and spam buckets
+        if (expiryWheel != null) {
+            expiryWheel.shutdown();
+        }
         
         consoleMessage("&c✗ AdminSuiteChat has been disabled!");
     }
@@ -155,6 +209,7 @@ public final class AdminSuiteChat extends JavaPlugin {
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new ChatListener(this), this);
+        getServer().getPluginManager().registerEvents(new RecipientListener(this), this);
     }
 
     private void checkPlaceholderAPI() {
@@ -176,6 +231,11 @@ public final class AdminSuiteChat extends JavaPlugin {
             Class<?> luckPermsClass = Class.forName("net.luckperms.api.LuckPerms");
             RegisteredServiceProvider<?> provider = Bukkit.getServicesManager().getRegistration(luckPermsClass);
             
+            // Recipient index follows permission changes regardless of group sync
+            if (provider != null) {
+                recipientIndex.hookLuckPerms(provider.getProvider());
+            }
+            
             if (provider != null && getConfig().getBoolean("settings.luckperms-sync", true)) {
                 luckPermsEnabled = true;
                 // Pass the provider object to LuckPermsIntegration which will handle the casting
@@ -248,27 +308,36 @@ public final class AdminSuiteChat extends JavaPlugin {
 
     public void reloadConfiguration() {
         reloadConfig();
+        settings = Settings.load(getConfig());
+        debugTrace.configure(settings);
+        placeholderCache.configure(settings);
         
         // Reload language
         messageUtils.loadLanguage();
         
         // Reload channels
         channelManager.reloadChannelsConfig();
+        recipientIndex.rebuild();
+        deliveryScheduler.initialize();
+        antiSpamManager.configure(settings);
+        duplicateDetector.configure(settings);
         
         // Reload settings
         pluginEnabled = getConfig().getBoolean("settings.enabled", true);
         coloredConsole = getConfig().getBoolean("settings.colored-console", true);
+        consoleSink.initialize();
         
         // Re-register channel commands
         if (commandRegistry != null && getConfig().getBoolean("settings.use-channel-commands", true)) {
             commandRegistry.registerChannelCommands();
         }
-        
-        // Reinitialize logging
-        if (getConfig().getBoolean("logging.enabled", true)) {
-            logManager.initialize();
+        if (commandRegistry != null) {
+            commandRegistry.registerHelpMeCommands();
         }
         
+        // Reinitialize logging, always: with logging turned off this stops the running writer
+        logManager.initialize();
+        
         // Resync LuckPerms if enabled
         if (luckPermsEnabled && luckPermsIntegration != null) {
             luckPermsIntegration.syncPermissions();
@@ -302,16 +371,29 @@ public final class AdminSuiteChat extends JavaPlugin {
      * Send debug message to console
      */
     public void debugMessage(String message) {
-        if (getConfig().getBoolean("settings.debug", false)) {
+        if (settings.isDebug()) {
             consoleMessage("&7[DEBUG] &f" + message);
         }
     }
 
+    /**
+     * Send debug message to console, the message is only built when debug is enabled
+     */
+    public void debugMessage(Supplier<String> message) {
+        if (settings.isDebug()) {
+            consoleMessage("&7[DEBUG] &f" + message.get());
+        }
+    }
+
     // Getters
     public static AdminSuiteChat getInstance() {
         return instance;
     }
 
+    public Settings getSettings() {
+        return settings;
+    }
+
     public ChannelManager getChannelManager() {
         return channelManager;
     }
@@ -332,6 +414,38 @@ public final class AdminSuiteChat extends JavaPlugin {
         return logManager;
     }
 
+    public RecipientIndex getRecipientIndex() {
+        return recipientIndex;
+    }
+
+    public DeliveryScheduler getDeliveryScheduler() {
+        return deliveryScheduler;
+    }
+
+    public ConsoleSink getConsoleSink() {
+        return consoleSink;
+    }
+
+    public TimerWheel getExpiryWheel() {
+        return expiryWheel;
+    }
+
+    public PlaceholderCache getPlaceholderCache() {
+        return placeholderCache;
+    }
+
+    public DebugTrace getDebugTrace() {
+        return debugTrace;
+    }
+
+    public ChatPipeline getChatPipeline() {
+        return chatPipeline;
+    }
+
+    public DuplicateDetector getDuplicateDetector() {
+        return duplicateDetector;
+    }
+
     public AntiSpamManager getAntiSpamManager() {
         return antiSpamManager;
     }
@@ -341,7 +455,7 @@ public final class AdminSuiteChat extends JavaPlugin {
     }
 
     public boolean isPlaceholderAPIEnabled() {
-        return placeholderAPIEnabled && getConfig().getBoolean("settings.use-placeholderapi", true);
+        return placeholderAPIEnabled && settings.isUsePlaceholderAPI();
     }
 
     public boolean isLuckPermsEnabled() {
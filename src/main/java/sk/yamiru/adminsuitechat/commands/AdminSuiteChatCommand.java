@@ -5,17 +5,30 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.managers.ChatPipeline;
+import sk.yamiru.adminsuitechat.managers.ConsoleSink;
+import sk.yamiru.adminsuitechat.managers.DebugTrace;
+import sk.yamiru.adminsuitechat.managers.PlaceholderCache;
+import sk.yamiru.adminsuitechat.managers.DeliveryScheduler;
+import sk.yamiru.adminsuitechat.managers.LogSearch;
+import sk.yamiru.adminsuitechat.managers.LogWriter;
+import sk.yamiru.adminsuitechat.managers.RecipientIndex;
 import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.models.Settings;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class AdminSuiteChatCommand implements CommandExecutor, TabCompleter {
 
     private final AdminSuiteChat plugin;
+    private final LogSearch logSearch;
 
     public AdminSuiteChatCommand(AdminSuiteChat plugin) {
         this.plugin = plugin;
+        this.logSearch = new LogSearch(plugin);
     }
 
     @Override
@@ -47,6 +60,57 @@ public class AdminSuiteChatCommand implements CommandExecutor, TabCompleter {
                 listChannels(sender);
                 return true;
 
+            case "logs":
+                if (!sender.hasPermission("adminsuitechat.logs.search") && !sender.hasPermission("adminsuitechat.logs.stats")) {
+                    sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                    return true;
+                }
+
+                handleLogs(sender, args);
+                return true;
+
+            case "recipients":
+                if (!sender.hasPermission("adminsuitechat.recipients")) {
+                    sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                    return true;
+                }
+
+                handleRecipients(sender, args);
+                return true;
+
+            case "delivery":
+                if (!sender.hasPermission("adminsuitechat.delivery")) {
+                    sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                    return true;
+                }
+
+                showDeliveryStats(sender);
+                return true;
+
+            case "pipeline":
+                if (!sender.hasPermission("adminsuitechat.pipeline")) {
+                    sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                    return true;
+                }
+
+                if (args.length == 2 && args[1].equalsIgnoreCase("reset")) {
+                    plugin.getChatPipeline().resetStats();
+                    plugin.getPlaceholderCache().resetStats();
+                    sender.sendMessage(plugin.getMessageUtils().colorize("&a✓ Pipeline statistics reset"));
+                    return true;
+                }
+                showPipelineStats(sender);
+                return true;
+
+            case "debug":
+                if (!sender.hasPermission("adminsuitechat.debug")) {
+                    sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                    return true;
+                }
+
+                handleDebug(sender, args);
+                return true;
+
             default:
                 sendHelp(sender);
                 return true;
@@ -57,9 +121,227 @@ public class AdminSuiteChatCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ AdminSuiteChat ▬▬▬▬▬"));
         sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc reload &7- Reload configuration"));
         sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc list &7- List all channels"));
+        if (sender.hasPermission("adminsuitechat.logs.search")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc logs search <player|text> [channel] [from] [to] &7- Search logs"));
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc logs page <number> &7- Show more search results"));
+        }
+        if (sender.hasPermission("adminsuitechat.logs.stats")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc logs stats &7- Show log writer statistics"));
+        }
+        if (sender.hasPermission("adminsuitechat.recipients")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc recipients [check] &7- Show or verify channel recipients"));
+        }
+        if (sender.hasPermission("adminsuitechat.delivery")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc delivery &7- Show broadcast queue and delays"));
+        }
+        if (sender.hasPermission("adminsuitechat.pipeline")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc pipeline [reset] &7- Show chat pipeline stage timings"));
+        }
+        if (sender.hasPermission("adminsuitechat.debug")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e/asc debug dump [player|channel] [name] &7- Show recent trace events"));
+        }
         sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬"));
     }
 
+    /**
+     * /asc logs search <player|text> [channel] [from] [to] | /asc logs page <number> | /asc logs stats
+     */
+    private void handleLogs(CommandSender sender, String[] args) {
+        if (args.length == 2 && args[1].equalsIgnoreCase("stats")) {
+            if (!sender.hasPermission("adminsuitechat.logs.stats")) {
+                sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+                return;
+            }
+            showLogStats(sender);
+            return;
+        }
+
+        if (!sender.hasPermission("adminsuitechat.logs.search")) {
+            sender.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+            return;
+        }
+
+        String usage = "&cUsage: /asc logs search <player|text> [channel] [from] [to] &7(from/to: 30m, 12h, 7d, 2w or yyyy-MM-dd)";
+
+        if (args.length >= 3 && args[1].equalsIgnoreCase("search")) {
+            if (!logSearch.search(sender, Arrays.copyOfRange(args, 2, args.length))) {
+                sender.sendMessage(plugin.getMessageUtils().colorize(usage));
+            }
+            return;
+        }
+
+        if (args.length == 3 && args[1].equalsIgnoreCase("page")) {
+            try {
+                logSearch.showPage(sender, Integer.parseInt(args[2]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(plugin.getMessageUtils().colorize("&cUsage: /asc logs page <number>"));
+            }
+            return;
+        }
+
+        sender.sendMessage(plugin.getMessageUtils().colorize(usage));
+    }
+
+    /**
+     * /asc recipients | /asc recipients check
+     */
+    private void handleRecipients(CommandSender sender, String[] args) {
+        RecipientIndex index = plugin.getRecipientIndex();
+
+        if (args.length == 2 && args[1].equalsIgnoreCase("check")) {
+            Map<String, List<String>> mismatches = index.checkConsistency();
+            if (mismatches.isEmpty()) {
+                sender.sendMessage(plugin.getMessageUtils().colorize("&a✓ Recipient index matches live permission checks"));
+                return;
+            }
+
+            int total = 0;
+            for (Map.Entry<String, List<String>> entry : mismatches.entrySet()) {
+                total += entry.getValue().size();
+                sender.sendMessage(plugin.getMessageUtils().colorize("&e" + entry.getKey() + "&7: &f" + String.join(", ", entry.getValue())));
+            }
+            sender.sendMessage(plugin.getMessageUtils().colorize("&cRepaired " + total + " recipient index entr" + (total == 1 ? "y" : "ies")
+                    + " &7(+ missing, - stale)"));
+            return;
+        }
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Channel Recipients ▬▬▬▬▬"));
+        for (Map.Entry<String, Integer> entry : index.getCounts().entrySet()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e" + entry.getKey() + "&7: &f" + entry.getValue()));
+        }
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Use &e/asc recipients check &7to compare with live permissions"));
+    }
+
+    /**
+     * /asc debug dump | /asc debug dump <player|channel> <name>
+     */
+    private void handleDebug(CommandSender sender, String[] args) {
+        DebugTrace trace = plugin.getDebugTrace();
+
+        if (args.length < 2 || !args[1].equalsIgnoreCase("dump")) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&cUsage: /asc debug dump [player|channel] [name]"));
+            return;
+        }
+
+        if (!trace.isTracing()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&eTracing is disabled &7(settings.trace.enabled)"));
+            return;
+        }
+
+        if (args.length == 4 && (args[2].equalsIgnoreCase("player") || args[2].equalsIgnoreCase("channel"))) {
+            String key = (args[2].equalsIgnoreCase("player") ? DebugTrace.PLAYER_PREFIX : DebugTrace.CHANNEL_PREFIX) + args[3];
+            List<String> events = trace.dump(key);
+            if (events.isEmpty()) {
+                sender.sendMessage(plugin.getMessageUtils().colorize("&7No trace events for &f" + key));
+                return;
+            }
+
+            sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Trace " + key + " ▬▬▬▬▬"));
+            for (String event : events) {
+                sender.sendMessage(plugin.getMessageUtils().colorize("&7") + event);
+            }
+            return;
+        }
+
+        Map<String, Integer> rings = trace.getRings();
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Trace Buffers ▬▬▬▬▬"));
+        if (rings.isEmpty()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&7No trace events recorded yet"));
+        }
+        for (Map.Entry<String, Integer> entry : rings.entrySet()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e" + entry.getKey() + "&7: &f" + entry.getValue() + " events"));
+        }
+    }
+
+    private void showPipelineStats(CommandSender sender) {
+        ChatPipeline pipeline = plugin.getChatPipeline();
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Chat Pipeline ▬▬▬▬▬"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Messages: &f" + pipeline.getProcessedCount()
+                + " &7Sent: &f" + pipeline.getCompletedCount()));
+
+        // Slowest stage by average is highlighted
+        List<ChatPipeline.StageStats> stats = pipeline.getStageStats();
+        long slowest = 0;
+        for (ChatPipeline.StageStats stage : stats) {
+            slowest = Math.max(slowest, stage.getAverageNanos());
+        }
+
+        for (ChatPipeline.StageStats stage : stats) {
+            String color = slowest > 0 && stage.getAverageNanos() == slowest ? "&c" : "&f";
+            sender.sendMessage(plugin.getMessageUtils().colorize("&e" + stage.getName() + "&7: " + color
+                    + formatMicros(stage.getAverageNanos()) + " &7avg, &f" + formatMicros(stage.getMaxNanos()) + " &7max, &f"
+                    + stage.getCalls() + " &7calls" + (stage.getStopped() > 0 ? ", &f" + stage.getStopped() + " &7stopped" : "")));
+        }
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Tracked: &f" + plugin.getAntiSpamManager().getTrackedCount()
+                + " &7anti-spam buckets, &f" + plugin.getDuplicateDetector().getTrackedCount() + " &7duplicate histories, &f"
+                + plugin.getCooldownManager().getTrackedCount() + " &7cooldowns, &f"
+                + plugin.getExpiryWheel().getPendingCount() + " &7scheduled expiries"));
+
+        PlaceholderCache cache = plugin.getPlaceholderCache();
+        if (!cache.isEnabled()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&7Placeholder cache: &edisabled"));
+            return;
+        }
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Placeholder cache: &f" + cache.getHits() + " &7hits, &f"
+                + cache.getMisses() + " &7misses (&f" + String.format("%.1f", cache.getHitRate()) + "% &7hit rate), &f"
+                + cache.getPlayerCount() + " &7players cached"));
+    }
+
+    private String formatMicros(long nanos) {
+        return String.format("%.1f µs", nanos / 1000.0);
+    }
+
+    private void showDeliveryStats(CommandSender sender) {
+        DeliveryScheduler scheduler = plugin.getDeliveryScheduler();
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Broadcast Delivery ▬▬▬▬▬"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Status: " + (scheduler.isEnabled() ? "&aqueued" : "&edirect")
+                + " &7(budget &f" + scheduler.getMaxMessagesPerTick() + " &7messages / &f" + scheduler.getMaxMillisPerTick() + " ms &7per tick)"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Queued: &f" + scheduler.getQueueSize()
+                + " &7Delivered: &f" + scheduler.getDeliveredCount()
+                + " &7Inline: &f" + scheduler.getInlineCount()
+                + " &7Budget-limited ticks: &f" + scheduler.getBudgetExhaustedTicks()));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Delay p50/p95/p99: &f" + formatDelayBound(scheduler.getDelayPercentileMs(50))
+                + "&7/&f" + formatDelayBound(scheduler.getDelayPercentileMs(95))
+                + "&7/&f" + formatDelayBound(scheduler.getDelayPercentileMs(99))
+                + " &7max &f" + scheduler.getMaxDelayMs() + " ms"));
+        for (String line : scheduler.getDelayHistogram()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&8  " + line));
+        }
+
+        ConsoleSink console = plugin.getConsoleSink();
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Console: " + (console.isAsync() ? "&aasync" : "&edirect")
+                + " &7Queued: &f" + console.getQueueSize()
+                + " &7Written: &f" + console.getWrittenCount()
+                + " &7Summarized: &f" + console.getSuppressedCount()
+                + " &7(cap &f" + console.getMaxLinesPerSecond() + "&7/s)"));
+    }
+
+    private String formatDelayBound(long bound) {
+        return bound < 0 ? ">5000 ms" : "<=" + bound + " ms";
+    }
+
+    private void showLogStats(CommandSender sender) {
+        LogWriter writer = plugin.getLogManager() != null ? plugin.getLogManager().getWriter() : null;
+        if (writer == null) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&cLogging is disabled."));
+            return;
+        }
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Log Writer ▬▬▬▬▬"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Queue: &f" + writer.getQueueSize() + "&7/&f" + writer.getQueueCapacity()
+                + " &7(peak &f" + writer.getQueueHighWaterMark() + "&7, overflow &f" + writer.getOverflowPolicy() + "&7)"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Enqueued: &f" + writer.getEnqueuedCount()
+                + " &7Written: &f" + writer.getWrittenCount()));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Dropped: &" + (writer.getDroppedCount() > 0 ? "c" : "f") + writer.getDroppedCount()
+                + " &7Spilled: &f" + writer.getSpilledCount()));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Durability: &f" + writer.getDurability()
+                + " &7(syncs &f" + writer.getSyncCount() + "&7, at risk &f" + writer.getEntriesAtRisk() + "&7)"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬"));
+    }
+
     private void listChannels(CommandSender sender) {
         sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Channel List ▬▬▬▬▬"));
         sender.sendMessage(" ");
@@ -107,9 +389,10 @@ public class AdminSuiteChatCommand implements CommandExecutor, TabCompleter {
         // HelpMe
         sender.sendMessage(" ");
         sender.sendMessage(plugin.getMessageUtils().colorize("&6&lHelpMe:"));
-        sender.sendMessage(plugin.getMessageUtils().colorize(" &8▸ &e/helpme <message>"));
-        if (plugin.getConfig().getBoolean("helpme.helpme2.enabled", true)) {
-            sender.sendMessage(plugin.getMessageUtils().colorize(" &8▸ &e/helpme2 <message>"));
+        for (Settings.HelpMe queue : plugin.getSettings().getHelpMeQueues().values()) {
+            if (queue.isEnabled()) {
+                sender.sendMessage(plugin.getMessageUtils().colorize(" &8▸ &e/" + queue.getCommand() + " <message>"));
+            }
         }
         
         sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬"));
@@ -126,6 +409,54 @@ public class AdminSuiteChatCommand implements CommandExecutor, TabCompleter {
             if (sender.hasPermission("adminsuitechat.list")) {
                 completions.add("list");
             }
+            if (sender.hasPermission("adminsuitechat.logs.search") || sender.hasPermission("adminsuitechat.logs.stats")) {
+                completions.add("logs");
+            }
+            if (sender.hasPermission("adminsuitechat.recipients")) {
+                completions.add("recipients");
+            }
+            if (sender.hasPermission("adminsuitechat.delivery")) {
+                completions.add("delivery");
+            }
+            if (sender.hasPermission("adminsuitechat.pipeline")) {
+                completions.add("pipeline");
+            }
+            if (sender.hasPermission("adminsuitechat.debug")) {
+                completions.add("debug");
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("logs")) {
+            if (sender.hasPermission("adminsuitechat.logs.search")) {
+                completions.add("search");
+                completions.add("page");
+            }
+            if (sender.hasPermission("adminsuitechat.logs.stats")) {
+                completions.add("stats");
+            }
+        } else if (args[0].equalsIgnoreCase("debug") && sender.hasPermission("adminsuitechat.debug")) {
+            if (args.length == 2) {
+                completions.add("dump");
+            } else if (args.length == 3) {
+                completions.add("player");
+                completions.add("channel");
+            } else if (args.length == 4) {
+                String prefix = args[2].equalsIgnoreCase("player") ? DebugTrace.PLAYER_PREFIX : DebugTrace.CHANNEL_PREFIX;
+                for (String key : plugin.getDebugTrace().getRings().keySet()) {
+                    if (key.startsWith(prefix)) {
+                        completions.add(key.substring(prefix.length()));
+                    }
+                }
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("pipeline")
+                && sender.hasPermission("adminsuitechat.pipeline")) {
+            completions.add("reset");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("recipients")
+                && sender.hasPermission("adminsuitechat.recipients")) {
+            completions.add("check");
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("logs") && args[1].equalsIgnoreCase("search")
+                && sender.hasPermission("adminsuitechat.logs.search")) {
+            for (ChatChannel channel : plugin.getChannelManager().getAllChannels()) {
+                completions.add(channel.getId());
+            }
         }
         
         return completions;
@@ -1,11 +1,13 @@
 package sk.yamiru.adminsuitechat.commands;
 
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.managers.RecipientIndex;
+import sk.yamiru.adminsuitechat.models.Settings;
+import sk.yamiru.adminsuitechat.utils.MessageSanitizer;
 
 public class HelpMeCommand implements CommandExecutor {
 
@@ -17,8 +19,14 @@ public class HelpMeCommand implements CommandExecutor {
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Queue is picked by the command name, so every alias of it ends up in the same queue
+        Settings.HelpMe settings = plugin.getSettings().getHelpMeByCommand(command.getName());
+        if (settings == null) {
+            settings = plugin.getSettings().getHelpMe("helpme1");
+        }
+
         // Check if HelpMe is enabled
-        if (!plugin.getConfig().getBoolean("helpme.helpme1.enabled", true)) {
+        if (!settings.isEnabled()) {
             sender.sendMessage(plugin.getMessageUtils().getMessage("helpme-disabled"));
             return true;
         }
@@ -44,12 +52,11 @@ public class HelpMeCommand implements CommandExecutor {
         }
 
         // Check cooldown (with bypass permission)
-        boolean hasBypass = player.hasPermission("adminsuitechat.helpme.bypass");
+        boolean hasBypass = settings.isAllowBypass() && player.hasPermission("adminsuitechat.helpme.bypass");
         
         if (!hasBypass) {
-            int cooldown = plugin.getConfig().getInt("helpme.helpme1.cooldown-seconds", 60);
-            if (plugin.getCooldownManager().hasCooldown(player.getUniqueId())) {
-                long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId());
+            if (plugin.getCooldownManager().hasCooldown(player.getUniqueId(), settings.getId())) {
+                long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId(), settings.getId());
                 sender.sendMessage(plugin.getMessageUtils().getMessage(
                     "helpme-cooldown",
                     "{time}", String.valueOf(remaining)
@@ -62,40 +69,32 @@ public class HelpMeCommand implements CommandExecutor {
         String message = String.join(" ", args);
 
         // Security: Sanitize message
-        message = sanitizeMessage(message);
+        message = MessageSanitizer.sanitize(message);
 
         // Check message length
-        int maxLength = plugin.getConfig().getInt("helpme.helpme1.max-message-length", 256);
+        int maxLength = settings.getMaxMessageLength();
         if (message.length() > maxLength) {
             message = message.substring(0, maxLength);
         }
 
+        // Repeated requests
+        if (!hasBypass && !plugin.getDuplicateDetector().check(player, settings.getId(), message)) {
+            return true;
+        }
+
         // Format message for admins
-        String prefix = plugin.getConfig().getString("helpme.helpme1.prefix", "&c&l[HELP]&r");
-        String format = plugin.getConfig().getString("helpme.helpme1.format", "{prefix} &7{player} needs help: &f{message}");
-        String formattedMessage = plugin.getMessageUtils().colorize(
-            format.replace("{prefix}", prefix)
-                  .replace("{player}", player.getName())
-                  .replace("{message}", message)
-        );
+        String formattedMessage = plugin.getMessageUtils().formatMessage(player, settings.getId(), settings.getFormatTemplate(), message);
 
         // Send to admins
-        for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-            if (onlinePlayer.hasPermission("adminsuitechat.helpme.see")) {
-                onlinePlayer.sendMessage(formattedMessage);
-            }
-        }
+        plugin.getDeliveryScheduler().deliver(RecipientIndex.HELPME_SEE_PERMISSION, formattedMessage);
 
         // Log to console with colors
-        String consoleFormat = plugin.getConfig().getString("helpme.helpme1.console-format", "&4[HELPME]&r {player}: {message}");
-        String consoleMsg = consoleFormat
-            .replace("{player}", player.getName())
-            .replace("{message}", message);
-        plugin.consoleMessage(consoleMsg);  // Use consoleMessage for colored output
+        String consoleMsg = settings.getConsoleTemplate().render(player.getName(), message, null);
+        plugin.getConsoleSink().submit(settings.getId(), consoleMsg);
 
         // Log to file
         if (plugin.getLogManager() != null && plugin.getLogManager().isEnabled()) {
-            plugin.getLogManager().logHelpMe("helpme1", player.getName(), message);
+            plugin.getLogManager().logHelpMe(settings.getId(), player.getUniqueId(), player.getName(), message);
         }
 
         // Always send confirmation to sender
@@ -103,31 +102,9 @@ public class HelpMeCommand implements CommandExecutor {
         
         // Set cooldown (if not bypassed)
         if (!hasBypass) {
-            int cooldown = plugin.getConfig().getInt("helpme.helpme1.cooldown-seconds", 60);
-            plugin.getCooldownManager().setCooldown(player.getUniqueId(), cooldown);
+            plugin.getCooldownManager().setCooldown(player.getUniqueId(), settings.getId(), settings.getCooldownSeconds());
         }
 
         return true;
     }
-
-    /**
-     * Sanitize message to prevent exploits
-     */
-    private String sanitizeMessage(String message) {
-        // Strip color codes
-        message = message.replaceAll("&[0-9a-fk-or]", "");
-        
-        // Remove potential command injections
-        message = message.replaceAll("[/\\\\]", "");
-        
-        // Limit length
-        if (message.length() > 256) {
-            message = message.substring(0, 256);
-        }
-        
-        // Limit consecutive special characters
-        message = message.replaceAll("([!@#$%^&*()_+=\\[\\]{}|;:'\",.<>?/\\\\`~-])\\1{3,}", "$1$1$1");
-        
-        return message.trim();
-    }
 }
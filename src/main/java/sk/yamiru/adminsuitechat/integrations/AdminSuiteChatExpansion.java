@@ -4,6 +4,7 @@ import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.managers.LogWriter;
 import sk.yamiru.adminsuitechat.models.ChatChannel;
 
 public class AdminSuiteChatExpansion extends PlaceholderExpansion {
@@ -36,6 +37,11 @@ public class AdminSuiteChatExpansion extends PlaceholderExpansion {
 
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String identifier) {
+        // %adminsuitechat_log_<stat>% (no player needed)
+        if (identifier.startsWith("log_")) {
+            return getLogStat(identifier.substring("log_".length()));
+        }
+
         if (player == null) {
             return "";
         }
@@ -88,4 +94,22 @@ public class AdminSuiteChatExpansion extends PlaceholderExpansion {
 
         return null;
     }
+
+    private String getLogStat(String stat) {
+        LogWriter writer = plugin.getLogManager() != null ? plugin.getLogManager().getWriter() : null;
+        if (writer == null) {
+            return "0";
+        }
+
+        return switch (stat) {
+            case "at_risk" -> String.valueOf(writer.getEntriesAtRisk());
+            case "enqueued" -> String.valueOf(writer.getEnqueuedCount());
+            case "written" -> String.valueOf(writer.getWrittenCount());
+            case "dropped" -> String.valueOf(writer.getDroppedCount());
+            case "spilled" -> String.valueOf(writer.getSpilledCount());
+            case "queue" -> String.valueOf(writer.getQueueSize());
+            case "queue_peak" -> String.valueOf(writer.getQueueHighWaterMark());
+            default -> null;
+        };
+    }
 }
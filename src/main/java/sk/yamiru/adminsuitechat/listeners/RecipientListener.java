@@ -0,0 +1,41 @@
+package sk.yamiru.adminsuitechat.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+
+/**
+ * Keeps the recipient index, cached placeholder values and anti-spam state in sync with online players
+ */
+public class RecipientListener implements Listener {
+
+    private final AdminSuiteChat plugin;
+
+    public RecipientListener(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getRecipientIndex().refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getRecipientIndex().remove(event.getPlayer());
+        plugin.getPlaceholderCache().invalidate(event.getPlayer());
+        plugin.getAntiSpamManager().evict(event.getPlayer().getUniqueId());
+        plugin.getDuplicateDetector().evict(event.getPlayer().getUniqueId());
+    }
+
+    // Per-world permissions and placeholders may change with the world
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getRecipientIndex().refresh(event.getPlayer());
+        plugin.getPlaceholderCache().invalidate(event.getPlayer());
+    }
+}
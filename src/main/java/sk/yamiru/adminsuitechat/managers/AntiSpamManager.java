@@ -2,132 +2,217 @@ package sk.yamiru.adminsuitechat.managers;
 
 import org.bukkit.entity.Player;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.RateLimitPolicy;
+import sk.yamiru.adminsuitechat.models.Settings;
 
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AntiSpamManager {
 
+    // Millisecond clock for buckets, relative so the timestamp fits the packed state
+    private static final long CLOCK_ORIGIN = System.nanoTime();
+
     private final AdminSuiteChat plugin;
-    private final Map<UUID, MessageTracker> trackers;
-    private boolean enabled;
-    private int maxMessagesPerSecond;
-    private int blockDuration;
-    private static final long CLEANUP_INTERVAL = 300000; // 5 minutes
-    private long lastCleanup = System.currentTimeMillis();
+    private final Map<UUID, TokenBucket> buckets;
+    private volatile RateLimitPolicy policy = RateLimitPolicy.DEFAULT;
+    // Buckets are checked at most this often for removal, and at least every EXPIRY_MAX_MILLIS
+    private static final long EXPIRY_MIN_MILLIS = 60000;
+    private static final long EXPIRY_MAX_MILLIS = 600000;
 
     public AntiSpamManager(AdminSuiteChat plugin) {
         this.plugin = plugin;
-        this.trackers = new ConcurrentHashMap<>();
-        loadSettings();
+        this.buckets = new ConcurrentHashMap<>();
+        configure(plugin.getSettings());
     }
 
-    private void loadSettings() {
-        enabled = plugin.getConfig().getBoolean("settings.anti-spam.enabled", true);
-        maxMessagesPerSecond = plugin.getConfig().getInt("settings.anti-spam.max-messages-per-second", 3);
-        blockDuration = plugin.getConfig().getInt("settings.anti-spam.block-duration-seconds", 5);
+    /**
+     * Swap in the policy of a settings snapshot (enable and reload)
+     * Existing buckets are kept: tokens above the new burst are cut and blocks end no later than the new duration allows
+     */
+    public void configure(Settings settings) {
+        RateLimitPolicy next = settings.getAntiSpam();
+        policy = next;
+
+        long now = now();
+        for (TokenBucket bucket : buckets.values()) {
+            bucket.migrate(now, next);
+        }
+        plugin.debugMessage(() -> "Anti-spam policy: " + next + " (" + buckets.size() + " buckets migrated)");
     }
 
     /**
-     * Check if player is allowed to send message
+     * Check and consume one message of the player's allowance in a single step (safe from any thread)
+     *
+     * @return false when the player sends too fast or is still blocked
      */
-    public boolean canSendMessage(Player player) {
-        if (!enabled) return true;
+    public boolean tryAcquire(Player player) {
+        // One read, so a reload in between cannot mix old and new limits
+        RateLimitPolicy current = policy;
+        if (!current.isEnabled()) return true;
         if (player.hasPermission("adminsuitechat.bypass.antispam")) return true;
 
-        // Automatic cleanup of old trackers
-        cleanupIfNeeded();
-
+        long now = now();
         UUID playerId = player.getUniqueId();
-        MessageTracker tracker = trackers.computeIfAbsent(playerId, k -> new MessageTracker());
-
-        return tracker.canSendMessage();
+        TokenBucket bucket = buckets.get(playerId);
+        if (bucket == null) {
+            TokenBucket created = new TokenBucket(now, current.getCapacity());
+            bucket = buckets.putIfAbsent(playerId, created);
+            if (bucket == null) {
+                bucket = created;
+                scheduleExpiry(playerId, created, 0);
+            }
+        }
+        return bucket.tryAcquire(now, current);
     }
 
     /**
-     * Record message sent by player
+     * Remove the bucket once it refilled completely (it behaves like a new one then), checked on the expiry wheel
      */
-    public void recordMessage(Player player) {
-        if (!enabled) return;
+    private void scheduleExpiry(UUID playerId, TokenBucket bucket, long untilFull) {
+        long delay = Math.min(EXPIRY_MAX_MILLIS, Math.max(EXPIRY_MIN_MILLIS, untilFull));
+        plugin.getExpiryWheel().schedule(delay, () -> {
+            if (buckets.get(playerId) != bucket) return;
+
+            long now = now();
+            RateLimitPolicy current = policy;
+            if (bucket.isFull(now, current)) {
+                buckets.remove(playerId, bucket);
+            } else {
+                scheduleExpiry(playerId, bucket, bucket.millisUntilFull(now, current));
+            }
+        });
+    }
 
-        UUID playerId = player.getUniqueId();
-        MessageTracker tracker = trackers.computeIfAbsent(playerId, k -> new MessageTracker());
-        tracker.recordMessage();
+    /**
+     * Drop the bucket of a player who left, a running block is kept so rejoining does not lift it
+     */
+    public void evict(UUID playerId) {
+        TokenBucket bucket = buckets.get(playerId);
+        if (bucket != null && !bucket.isBlocked(now())) {
+            buckets.remove(playerId, bucket);
+        }
     }
 
     /**
-     * Cleanup inactive trackers to save memory
+     * Players with a bucket
      */
-    private void cleanupIfNeeded() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCleanup < CLEANUP_INTERVAL) return;
+    public int getTrackedCount() {
+        return buckets.size();
+    }
 
-        lastCleanup = currentTime;
-        trackers.entrySet().removeIf(entry -> entry.getValue().isInactive(currentTime));
+    public RateLimitPolicy getPolicy() {
+        return policy;
     }
 
     /**
      * Clear all tracking data
      */
     public void clear() {
-        trackers.clear();
+        buckets.clear();
+    }
+
+    private static long now() {
+        return (System.nanoTime() - CLOCK_ORIGIN) / 1_000_000;
     }
 
     /**
-     * Inner class to track messages per player
-     * Optimized using circular buffer
+     * Token bucket per player, timestamp and tokens packed in one long and updated with a single CAS
+     * A blocked bucket carries a timestamp in the future and no refill happens until then
      */
-    private class MessageTracker {
-        private final long[] messageTimes;
-        private int currentIndex;
-        private long blockedUntil;
-        private long lastActivity;
-
-        public MessageTracker() {
-            this.messageTimes = new long[maxMessagesPerSecond];
-            this.currentIndex = 0;
-            this.blockedUntil = 0;
-            this.lastActivity = System.currentTimeMillis();
-        }
+    static final class TokenBucket {
+        private static final long TOKEN = RateLimitPolicy.TOKEN;
+        private static final int TOKEN_BITS = 24;
+        private static final long TOKEN_MASK = RateLimitPolicy.MAX_TOKENS;
 
-        public boolean canSendMessage() {
-            long currentTime = System.currentTimeMillis();
-            lastActivity = currentTime;
+        // High 40 bits: last refill (or block end) in ms, low 24 bits: milli-tokens
+        private final AtomicLong state;
 
-            // Check if player is currently blocked
-            if (currentTime < blockedUntil) {
-                return false;
-            }
+        TokenBucket(long now, long capacity) {
+            this.state = new AtomicLong(pack(now, capacity));
+        }
+
+        /**
+         * Refill, then take one token; an empty bucket blocks until now + blockMillis and is full afterwards
+         */
+        boolean tryAcquire(long now, RateLimitPolicy policy) {
+            long capacity = policy.getCapacity();
+            while (true) {
+                long current = state.get();
+                long time = current >>> TOKEN_BITS;
+                long elapsed = now - time;
+                if (elapsed < 0) {
+                    return false;
+                }
 
-            // Check if too many messages in last second
-            long oneSecondAgo = currentTime - 1000;
-            int recentMessages = 0;
+                long refilled = (long) (elapsed * policy.getRefillPerMilli());
+                long available = Math.min(capacity, (current & TOKEN_MASK) + refilled);
+                // Without refill the timestamp stays, so slow rates still accumulate
+                long stamp = refilled > 0 ? now : time;
+
+                long next;
+                if (available >= TOKEN) {
+                    next = pack(stamp, available - TOKEN);
+                } else if (policy.getBlockMillis() > 0) {
+                    next = pack(now + policy.getBlockMillis(), capacity);
+                } else {
+                    return false;
+                }
 
-            for (long messageTime : messageTimes) {
-                if (messageTime > oneSecondAgo) {
-                    recentMessages++;
+                if (state.compareAndSet(current, next)) {
+                    return available >= TOKEN;
                 }
             }
+        }
 
-            if (recentMessages >= maxMessagesPerSecond) {
-                // Block player for specified duration
-                blockedUntil = currentTime + (blockDuration * 1000L);
-                return false;
+        /**
+         * Adapt to a new policy: cut tokens to the new capacity, shorten a running block to the new duration
+         */
+        void migrate(long now, RateLimitPolicy policy) {
+            while (true) {
+                long current = state.get();
+                long time = current >>> TOKEN_BITS;
+                long tokens = current & TOKEN_MASK;
+                long migratedTime = Math.min(time, now + policy.getBlockMillis());
+                long migratedTokens = Math.min(tokens, policy.getCapacity());
+                if ((migratedTime == time && migratedTokens == tokens)
+                        || state.compareAndSet(current, pack(migratedTime, migratedTokens))) {
+                    return;
+                }
             }
+        }
+
+        boolean isFull(long now, RateLimitPolicy policy) {
+            long current = state.get();
+            long elapsed = now - (current >>> TOKEN_BITS);
+            return elapsed >= 0 && (current & TOKEN_MASK) + elapsed * policy.getRefillPerMilli() >= policy.getCapacity();
+        }
 
-            return true;
+        boolean isBlocked(long now) {
+            return now < state.get() >>> TOKEN_BITS;
         }
 
-        public void recordMessage() {
-            messageTimes[currentIndex] = System.currentTimeMillis();
-            currentIndex = (currentIndex + 1) % maxMessagesPerSecond;
-            lastActivity = System.currentTimeMillis();
+        /**
+         * Milliseconds until the bucket is full again, a blocked bucket is full when the block ends
+         */
+        long millisUntilFull(long now, RateLimitPolicy policy) {
+            long current = state.get();
+            long elapsed = now - (current >>> TOKEN_BITS);
+            if (elapsed < 0) {
+                return -elapsed;
+            }
+            if (policy.getRefillPerMilli() <= 0) {
+                return Long.MAX_VALUE;
+            }
+
+            long missing = policy.getCapacity() - (current & TOKEN_MASK);
+            return Math.max(0, (long) Math.ceil(missing / policy.getRefillPerMilli()) - elapsed);
         }
 
-        public boolean isInactive(long currentTime) {
-            // Remove tracker if player hasn't sent message in 10 minutes
-            return currentTime - lastActivity > 600000;
+        private static long pack(long time, long tokens) {
+            return (time << TOKEN_BITS) | tokens;
         }
     }
 }
@@ -0,0 +1,330 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.utils.TarArchiveReader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * On-disk manifest of log archives (archives/index.yml)
+ * Rotation, retention and lookups read this index instead of walking the archives directory
+ */
+public class ArchiveIndex {
+
+    private static final String INDEX_FILE = "index.yml";
+    private static final Pattern ARCHIVE_NAME = Pattern.compile("logs(\\d+)\\.tar\\.gz");
+
+    private final AdminSuiteChat plugin;
+    private final Path archiveDirectory;
+    private final Path indexFile;
+    private final Map<Integer, ArchiveEntry> entries = new TreeMap<>();
+    private int lastNumber;
+    private boolean loaded;
+
+    public ArchiveIndex(AdminSuiteChat plugin, Path archiveDirectory) {
+        this.plugin = plugin;
+        this.archiveDirectory = archiveDirectory;
+        this.indexFile = archiveDirectory.resolve(INDEX_FILE);
+    }
+
+    /**
+     * Load index from disk, rebuild it from the archives when missing
+     */
+    public synchronized void load() {
+        entries.clear();
+        lastNumber = 0;
+        loaded = true;
+
+        if (!Files.exists(indexFile)) {
+            rebuild();
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(indexFile.toFile());
+        lastNumber = config.getInt("last-number", 0);
+
+        ConfigurationSection section = config.getConfigurationSection("archives");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                ConfigurationSection archive = section.getConfigurationSection(key);
+                if (archive == null) continue;
+
+                try {
+                    int number = Integer.parseInt(key);
+                    entries.put(number, new ArchiveEntry(
+                            number,
+                            archive.getString("file", "logs" + number + ".tar.gz"),
+                            archive.getLong("created"),
+                            archive.getLong("from"),
+                            archive.getLong("to"),
+                            archive.getStringList("channels"),
+                            archive.getLong("raw-bytes"),
+                            archive.getLong("archive-bytes"),
+                            archive.getString("crc32", "")
+                    ));
+                } catch (NumberFormatException e) {
+                    plugin.getDebugTrace().trace(null, null, "Ignoring invalid archive index entry: {}", key);
+                }
+            }
+        }
+
+        plugin.getDebugTrace().trace(null, null, "Archive index loaded - {} archive(s)", entries.size());
+    }
+
+    /**
+     * Rebuild index by scanning the archives once (only when index.yml is missing)
+     */
+    public synchronized void rebuild() {
+        entries.clear();
+        lastNumber = 0;
+        loaded = true;
+        long newestCreated = Long.MIN_VALUE;
+
+        List<Path> archives;
+        try (Stream<Path> stream = Files.list(archiveDirectory)) {
+            archives = stream.filter(path -> ARCHIVE_NAME.matcher(path.getFileName().toString()).matches()).toList();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to rebuild archive index: " + e.getMessage());
+            return;
+        }
+
+        for (Path archive : archives) {
+            Matcher matcher = ARCHIVE_NAME.matcher(archive.getFileName().toString());
+            if (!matcher.matches()) continue;
+
+            try {
+                ArchiveEntry entry = inspectArchive(Integer.parseInt(matcher.group(1)), archive);
+                entries.put(entry.getNumber(), entry);
+
+                // Newest archive was the last one written
+                if (entry.getCreated() > newestCreated) {
+                    newestCreated = entry.getCreated();
+                    lastNumber = entry.getNumber();
+                }
+            } catch (IOException | NumberFormatException e) {
+                plugin.getLogger().warning("Failed to index archive " + archive.getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        save();
+        plugin.getConsoleSink().submit("logging", "&7Rebuilt archive index (" + entries.size() + " archive(s))");
+    }
+
+    /**
+     * Read archive headers and checksum for an archive written before the index existed
+     */
+    private ArchiveEntry inspectArchive(int number, Path archive) throws IOException {
+        CRC32 crc = new CRC32();
+        TreeSet<String> channels = new TreeSet<>();
+        long rawBytes = 0;
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(archive)), crc);
+             TarArchiveReader tar = new TarArchiveReader(new GZIPInputStream(checked))) {
+
+            TarArchiveReader.Entry entry;
+            while ((entry = tar.nextEntry()) != null) {
+                channels.add(LogWriter.logNameOf(entry.getName()));
+                rawBytes += entry.getSize();
+                from = Math.min(from, entry.getLastModified());
+                to = Math.max(to, entry.getLastModified());
+            }
+
+            // Read trailing bytes so the checksum covers the whole file
+            byte[] buffer = new byte[8192];
+            int read;
+            do {
+                read = checked.read(buffer);
+            } while (read != -1);
+        }
+
+        long created = Files.getLastModifiedTime(archive).toMillis();
+        return new ArchiveEntry(number, archive.getFileName().toString(), created,
+                from == Long.MAX_VALUE ? created : from, to == Long.MIN_VALUE ? created : to,
+                new ArrayList<>(channels), rawBytes, Files.size(archive), String.format("%08x", crc.getValue()));
+    }
+
+    /**
+     * Index is loaded in the background, callers arriving earlier load it themselves
+     */
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Next archive number with rotation (1-max, then back to 1)
+     */
+    public synchronized int nextNumber(int maxArchives) {
+        ensureLoaded();
+        int nextNumber = lastNumber + 1;
+        if (maxArchives > 0 && nextNumber > maxArchives) {
+            nextNumber = 1;
+        }
+        return nextNumber;
+    }
+
+    /**
+     * Record newly written archive (replaces entry with the same number)
+     */
+    public synchronized void put(ArchiveEntry entry) {
+        ensureLoaded();
+        entries.put(entry.getNumber(), entry);
+        lastNumber = entry.getNumber();
+        save();
+    }
+
+    /**
+     * Delete archive file and its index entry
+     */
+    public synchronized boolean delete(int number) throws IOException {
+        ensureLoaded();
+        ArchiveEntry entry = entries.remove(number);
+        if (entry == null) return false;
+
+        Path archive = archiveDirectory.resolve(entry.getFileName());
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(LogWriter.indexFileOf(archive));
+        save();
+        return true;
+    }
+
+    public synchronized ArchiveEntry get(int number) {
+        ensureLoaded();
+        return entries.get(number);
+    }
+
+    /**
+     * Archives ordered from oldest to newest
+     */
+    public synchronized List<ArchiveEntry> getEntriesByAge() {
+        ensureLoaded();
+        List<ArchiveEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(ArchiveEntry::getCreated));
+        return sorted;
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * Write index atomically (temp file + rename)
+     */
+    private void save() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("last-number", lastNumber);
+
+        for (ArchiveEntry entry : entries.values()) {
+            String path = "archives." + entry.getNumber();
+            config.set(path + ".file", entry.getFileName());
+            config.set(path + ".created", entry.getCreated());
+            config.set(path + ".from", entry.getFrom());
+            config.set(path + ".to", entry.getTo());
+            config.set(path + ".channels", entry.getChannels());
+            config.set(path + ".raw-bytes", entry.getRawBytes());
+            config.set(path + ".archive-bytes", entry.getArchiveBytes());
+            config.set(path + ".crc32", entry.getChecksum());
+        }
+
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try {
+            config.save(temp.toFile());
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save archive index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Metadata of one logsN.tar.gz archive
+     */
+    public static final class ArchiveEntry {
+        private final int number;
+        private final String fileName;
+        private final long created;
+        private final long from;
+        private final long to;
+        private final List<String> channels;
+        private final long rawBytes;
+        private final long archiveBytes;
+        private final String checksum;
+
+        public ArchiveEntry(int number, String fileName, long created, long from, long to,
+                            Collection<String> channels, long rawBytes, long archiveBytes, String checksum) {
+            this.number = number;
+            this.fileName = fileName;
+            this.created = created;
+            this.from = from;
+            this.to = to;
+            this.channels = List.copyOf(channels);
+            this.rawBytes = rawBytes;
+            this.archiveBytes = archiveBytes;
+            this.checksum = checksum;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getFrom() {
+            return from;
+        }
+
+        public long getTo() {
+            return to;
+        }
+
+        public List<String> getChannels() {
+            return channels;
+        }
+
+        public long getRawBytes() {
+            return rawBytes;
+        }
+
+        public long getArchiveBytes() {
+            return archiveBytes;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+    }
+}
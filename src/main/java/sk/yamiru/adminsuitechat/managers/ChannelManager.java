@@ -4,6 +4,8 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
 import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.utils.MessageTemplate;
+import sk.yamiru.adminsuitechat.utils.ShortcutTrie;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,6 +16,8 @@ public class ChannelManager {
     private final AdminSuiteChat plugin;
     private final Map<String, ChatChannel> channels;
     private final Map<String, String> shortcutToChannel;
+    // Rebuilt on every load and swapped in whole, chat threads read it without locking
+    private volatile ShortcutTrie<ChatChannel> shortcutTrie = new ShortcutTrie<>();
     private YamlConfiguration channelsConfig;
 
     public ChannelManager(AdminSuiteChat plugin) {
@@ -58,6 +62,13 @@ public class ChannelManager {
             }
         }
 
+        // Channels load in config order, so the first of duplicate shortcuts wins as before
+        ShortcutTrie<ChatChannel> trie = new ShortcutTrie<>();
+        for (ChatChannel channel : channels.values()) {
+            trie.put(channel.getShortcut(), channel);
+        }
+        shortcutTrie = trie;
+
         plugin.getLogger().info("Loaded " + channels.size() + " channels");
     }
 
@@ -77,9 +88,14 @@ public class ChannelManager {
         String logFilename = channelsConfig.getString(path + ".log-filename", id + ".log");
         String luckPermsGroup = channelsConfig.getString(path + ".luckperms-group", "");
 
+        // Compile formats once, the prefix is inlined so its colors and placeholders are compiled too
+        MessageTemplate formatTemplate = MessageTemplate.compile(format.replace("{prefix}", prefix));
+        MessageTemplate consoleTemplate = MessageTemplate.compile(consoleFormat);
+
         ChatChannel channel = new ChatChannel(
                 id, shortcut, command, permission, prefix, format,
-                consoleFormat, logToFile, logFilename, luckPermsGroup, isCustom
+                consoleFormat, logToFile, logFilename, luckPermsGroup, isCustom,
+                formatTemplate, consoleTemplate
         );
 
         channels.put(id, channel);
@@ -97,6 +113,13 @@ public class ChannelManager {
         return channelId != null ? channels.get(channelId) : null;
     }
 
+    /**
+     * Channel whose shortcut the chat message starts with (longest shortcut wins), or null
+     */
+    public ChatChannel matchShortcut(String message) {
+        return shortcutTrie.match(message);
+    }
+
     public Collection<ChatChannel> getAllChannels() {
         return channels.values();
     }
@@ -0,0 +1,313 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.entity.Player;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.utils.MessageSanitizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Staged processing of a channel message, shared by chat shortcuts and channel commands
+ * Stages run in order until one stops the message, each stage is timed in nanoseconds
+ */
+public class ChatPipeline {
+
+    public static final String PERMISSION = "permission";
+    public static final String SANITIZE = "sanitize";
+    public static final String ANTI_SPAM = "anti-spam";
+    public static final String DUPLICATE = "duplicate";
+    public static final String FORMAT = "format";
+    public static final String DELIVER = "deliver";
+    public static final String LOG_FILE = "log-file";
+    public static final String LOG_CONSOLE = "log-console";
+
+    private final AdminSuiteChat plugin;
+    private final List<TimedStage> stages = new CopyOnWriteArrayList<>();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    public ChatPipeline(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+
+        addStage(PERMISSION, this::checkPermission);
+        addStage(SANITIZE, this::sanitize);
+        addStage(ANTI_SPAM, this::checkAntiSpam);
+        addStage(DUPLICATE, this::checkDuplicate);
+        addStage(FORMAT, this::format);
+        addStage(DELIVER, this::deliver);
+        addStage(LOG_FILE, this::logToFile);
+        addStage(LOG_CONSOLE, this::logToConsole);
+    }
+
+    /**
+     * Append stage at the end of the pipeline
+     */
+    public void addStage(String name, Stage stage) {
+        stages.add(new TimedStage(name, stage));
+    }
+
+    /**
+     * Insert stage before an existing one (appended when the stage does not exist)
+     */
+    public void addStageBefore(String before, String name, Stage stage) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (stages.get(i).name.equals(before)) {
+                stages.add(i, new TimedStage(name, stage));
+                return;
+            }
+        }
+        addStage(name, stage);
+    }
+
+    public boolean removeStage(String name) {
+        return stages.removeIf(stage -> stage.name.equals(name));
+    }
+
+    /**
+     * Run message through all stages (safe from any thread)
+     *
+     * @param usageCommand shortcut or /command shown in the usage hint when the message is empty
+     * @return true when every stage passed
+     */
+    public boolean process(Player player, ChatChannel channel, String message, String usageCommand) {
+        ChatContext context = new ChatContext(player, channel, message, usageCommand);
+        processed.increment();
+
+        for (TimedStage stage : stages) {
+            long start = System.nanoTime();
+            boolean proceed;
+            try {
+                proceed = stage.stage.process(context);
+            } finally {
+                stage.record(System.nanoTime() - start);
+            }
+
+            if (!proceed) {
+                stage.stopped.increment();
+                plugin.getDebugTrace().trace(player.getName(), channel.getId(), "Message by {} stopped at stage {}", player.getName(), stage.name);
+                return false;
+            }
+        }
+
+        completed.increment();
+        plugin.getDebugTrace().trace(player.getName(), channel.getId(), "Message sent to channel {} by {}", channel.getId(), player.getName());
+        return true;
+    }
+
+    private boolean checkPermission(ChatContext context) {
+        if (context.player.hasPermission(context.channel.getPermission())) {
+            return true;
+        }
+
+        context.player.sendMessage(plugin.getMessageUtils().getMessage("no-permission"));
+        plugin.getDebugTrace().trace(context.player.getName(), context.channel.getId(),
+                "{} tried to use channel {} without permission", context.player.getName(), context.channel.getId());
+        return false;
+    }
+
+    private boolean sanitize(ChatContext context) {
+        // Security: Strip color codes and sanitize to prevent abuse
+        context.message = MessageSanitizer.sanitize(context.message);
+        if (!context.message.isEmpty()) {
+            return true;
+        }
+
+        context.player.sendMessage(plugin.getMessageUtils().colorize("&cUsage: " + context.usageCommand + " <message>"));
+        return false;
+    }
+
+    private boolean checkAntiSpam(ChatContext context) {
+        if (!plugin.getAntiSpamManager().tryAcquire(context.player)) {
+            context.player.sendMessage(plugin.getMessageUtils().getMessage("anti-spam-blocked"));
+            plugin.getDebugTrace().trace(context.player.getName(), context.channel.getId(), "{} blocked by anti-spam", context.player.getName());
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean checkDuplicate(ChatContext context) {
+        return plugin.getDuplicateDetector().check(context.player, context.channel.getId(), context.message);
+    }
+
+    private boolean format(ChatContext context) {
+        context.formattedMessage = plugin.getMessageUtils().formatMessage(context.player, context.channel, context.message);
+        return true;
+    }
+
+    private boolean deliver(ChatContext context) {
+        plugin.getDeliveryScheduler().deliver(context.channel.getPermission(), context.formattedMessage);
+        return true;
+    }
+
+    private boolean logToFile(ChatContext context) {
+        LogManager logManager = plugin.getLogManager();
+        if (logManager != null && logManager.isEnabled() && context.channel.isLogToFile()) {
+            logManager.logToFile(context.channel.getId(), context.player.getUniqueId(), context.player.getName(), context.message);
+        }
+        return true;
+    }
+
+    private boolean logToConsole(ChatContext context) {
+        if (plugin.getSettings().isConsoleLogging()) {
+            plugin.getConsoleSink().submit(context.channel.getId(), plugin.getMessageUtils().formatConsoleMessage(
+                    context.channel, context.player.getName(), context.message));
+        }
+        return true;
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Timing snapshot of every stage in pipeline order
+     */
+    public List<StageStats> getStageStats() {
+        List<StageStats> stats = new ArrayList<>();
+        for (TimedStage stage : stages) {
+            stats.add(new StageStats(stage.name, stage.calls.sum(), stage.totalNanos.sum(),
+                    stage.maxNanos.get(), stage.stopped.sum()));
+        }
+        return stats;
+    }
+
+    public void resetStats() {
+        processed.reset();
+        completed.reset();
+        for (TimedStage stage : stages) {
+            stage.calls.reset();
+            stage.totalNanos.reset();
+            stage.maxNanos.set(0);
+            stage.stopped.reset();
+        }
+    }
+
+    /**
+     * Pipeline stage, return false to stop the message (the stage informs the player itself)
+     */
+    @FunctionalInterface
+    public interface Stage {
+        boolean process(ChatContext context);
+    }
+
+    /**
+     * Message travelling through the pipeline, stages may replace the message text
+     */
+    public static class ChatContext {
+        private final Player player;
+        private final ChatChannel channel;
+        private final String usageCommand;
+        private String message;
+        private String formattedMessage;
+
+        private ChatContext(Player player, ChatChannel channel, String message, String usageCommand) {
+            this.player = player;
+            this.channel = channel;
+            this.message = message;
+            this.usageCommand = usageCommand;
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        public ChatChannel getChannel() {
+            return channel;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Message as sent to players, null before the format stage
+         */
+        public String getFormattedMessage() {
+            return formattedMessage;
+        }
+
+        public void setFormattedMessage(String formattedMessage) {
+            this.formattedMessage = formattedMessage;
+        }
+    }
+
+    /**
+     * Timing of one stage
+     */
+    public static class StageStats {
+        private final String name;
+        private final long calls;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long stopped;
+
+        private StageStats(String name, long calls, long totalNanos, long maxNanos, long stopped) {
+            this.name = name;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.stopped = stopped;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getAverageNanos() {
+            return calls > 0 ? totalNanos / calls : 0;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Messages this stage stopped
+         */
+        public long getStopped() {
+            return stopped;
+        }
+    }
+
+    private static final class TimedStage {
+        private final String name;
+        private final Stage stage;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder stopped = new LongAdder();
+
+        private TimedStage(String name, Stage stage) {
+            this.name = name;
+            this.stage = stage;
+        }
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
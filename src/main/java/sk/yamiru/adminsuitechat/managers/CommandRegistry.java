@@ -2,11 +2,14 @@ package sk.yamiru.adminsuitechat.managers;
 
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandMap;
 import org.bukkit.command.SimpleCommandMap;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
 import sk.yamiru.adminsuitechat.commands.ChannelCommand;
+import sk.yamiru.adminsuitechat.commands.HelpMeCommand;
 import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.models.Settings;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -16,6 +19,7 @@ public class CommandRegistry {
 
     private final AdminSuiteChat plugin;
     private final List<String> registeredCommands;
+    private final List<String> registeredHelpMeCommands = new ArrayList<>();
     private CommandMap commandMap;
 
     public CommandRegistry(AdminSuiteChat plugin) {
@@ -48,7 +52,7 @@ public class CommandRegistry {
         }
 
         // Unregister old commands first
-        unregisterAllCommands();
+        unregister(registeredCommands);
 
         int registeredCount = 0;
 
@@ -76,7 +80,7 @@ public class CommandRegistry {
     private boolean registerChannelCommand(String commandName, ChatChannel channel) {
         try {
             // Create command
-            ChannelCommandWrapper cmd = new ChannelCommandWrapper(
+            CommandWrapper cmd = new CommandWrapper(
                 commandName,
                 "Send message to " + channel.getId().toUpperCase() + " channel",
                 "/" + commandName + " <message>",
@@ -96,10 +100,48 @@ public class CommandRegistry {
     }
 
     /**
-     * Unregister all channel commands
+     * Register commands of HelpMe queues not declared in plugin.yml (e.g. helpme3 with command: helpme3)
+     */
+    public void registerHelpMeCommands() {
+        if (commandMap == null) {
+            return;
+        }
+
+        unregister(registeredHelpMeCommands);
+
+        HelpMeCommand executor = new HelpMeCommand(plugin);
+        for (Settings.HelpMe queue : plugin.getSettings().getHelpMeQueues().values()) {
+            String commandName = queue.getCommand();
+            // /helpme and /helpme2 come from plugin.yml
+            if (plugin.getCommand(commandName) != null) {
+                continue;
+            }
+
+            try {
+                commandMap.register("adminsuitechat", new CommandWrapper(
+                    commandName,
+                    "Send help request to " + queue.getId(),
+                    "/" + commandName + " <message>",
+                    executor
+                ));
+                registeredHelpMeCommands.add(commandName);
+                plugin.debugMessage("Registered command: /" + commandName + " for " + queue.getId());
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to register command /" + commandName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Unregister all channel and HelpMe commands
      */
     public void unregisterAllCommands() {
-        if (commandMap == null || registeredCommands.isEmpty()) {
+        unregister(registeredCommands);
+        unregister(registeredHelpMeCommands);
+    }
+
+    private void unregister(List<String> commands) {
+        if (commandMap == null || commands.isEmpty()) {
             return;
         }
 
@@ -109,7 +151,7 @@ public class CommandRegistry {
             @SuppressWarnings("unchecked")
             var knownCommands = (java.util.Map<String, Command>) knownCommandsField.get(commandMap);
 
-            for (String cmdName : registeredCommands) {
+            for (String cmdName : commands) {
                 Command cmd = knownCommands.remove(cmdName);
                 if (cmd != null) {
                     cmd.unregister(commandMap);
@@ -119,7 +161,7 @@ public class CommandRegistry {
                 knownCommands.remove("adminsuitechat:" + cmdName);
             }
 
-            registeredCommands.clear();
+            commands.clear();
 
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to unregister commands: " + e.getMessage());
@@ -129,10 +171,10 @@ public class CommandRegistry {
     /**
      * Inner class for command wrapper
      */
-    private static class ChannelCommandWrapper extends Command {
-        private final ChannelCommand executor;
+    private static class CommandWrapper extends Command {
+        private final CommandExecutor executor;
 
-        public ChannelCommandWrapper(String name, String description, String usage, ChannelCommand executor) {
+        public CommandWrapper(String name, String description, String usage, CommandExecutor executor) {
             super(name);
             this.setDescription(description);
             this.setUsage(usage);
@@ -0,0 +1,224 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.ChatColor;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Console output for chat traffic (channel messages, helpme requests, debug lines)
+ * Lines are queued by the chat thread, colors are rendered and written in batches by a background thread
+ * Above the per-second cap lines are counted per source and summarized once the second is over
+ */
+public class ConsoleSink {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long WINDOW_MILLIS = 1000;
+
+    private final AdminSuiteChat plugin;
+    private final BlockingQueue<Line> queue = new LinkedBlockingQueue<>();
+    // Lines rejected with the queue full, by source
+    private final Map<String, AtomicInteger> overflow = new ConcurrentHashMap<>();
+    private volatile Thread worker;
+
+    private volatile boolean async;
+    private volatile int maxLinesPerSecond;
+    private volatile int queueCapacity;
+
+    // Written and read by the worker only (or the caller of shutdown once the worker stopped)
+    private final Map<String, Integer> suppressed = new LinkedHashMap<>();
+    private long windowStart;
+    private int windowLines;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong suppressedTotal = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ConsoleSink(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load settings and start the writer thread (enable and reload)
+     */
+    public void initialize() {
+        async = plugin.getConfig().getBoolean("logging.console.async", true);
+        maxLinesPerSecond = plugin.getConfig().getInt("logging.console.max-lines-per-second", 50);
+        queueCapacity = Math.max(1, plugin.getConfig().getInt("logging.console.queue-capacity", 10000));
+
+        if (!async && worker != null) {
+            shutdown();
+        } else if (async && worker == null) {
+            Thread thread = new Thread(this::run, "AdminSuiteChat-Console");
+            thread.setDaemon(true);
+            worker = thread;
+            thread.start();
+        }
+
+        plugin.debugMessage(() -> "Console sink " + (async ? "async" : "sync")
+                + " (max " + (maxLinesPerSecond > 0 ? maxLinesPerSecond : "unlimited") + " lines per second)");
+    }
+
+    /**
+     * Queue a line for the console (safe from any thread), written right away when the sink is not running
+     *
+     * @param source channel or queue id, used in the summary of suppressed lines
+     */
+    public void submit(String source, String message) {
+        if (worker == null) {
+            plugin.consoleMessage(message);
+            return;
+        }
+
+        // A full queue means the console cannot keep up, those lines end up in the summary
+        if (queue.size() >= queueCapacity) {
+            dropped.incrementAndGet();
+            overflow.computeIfAbsent(source, k -> new AtomicInteger()).incrementAndGet();
+            return;
+        }
+
+        queue.offer(new Line(source, message));
+    }
+
+    private void run() {
+        List<Line> batch = new ArrayList<>(BATCH_SIZE);
+        while (worker == Thread.currentThread()) {
+            try {
+                Line first = queue.poll(WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                plugin.getLogger().warning("Console output failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Render and write one batch within the rate cap, summaries are written when the window is over
+     */
+    private void flush(List<Line> batch) {
+        List<String> out = new ArrayList<>(batch.size() + 1);
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= WINDOW_MILLIS) {
+            summarize(out);
+            windowStart = now;
+            windowLines = 0;
+        }
+
+        int cap = maxLinesPerSecond;
+        for (Line line : batch) {
+            if (cap > 0 && windowLines >= cap) {
+                suppressed.merge(line.source, 1, Integer::sum);
+                suppressedTotal.incrementAndGet();
+                continue;
+            }
+
+            windowLines++;
+            out.add(render(line.message));
+        }
+
+        if (!out.isEmpty()) {
+            plugin.getServer().getConsoleSender().sendMessage(out.toArray(new String[0]));
+            written.addAndGet(out.size());
+        }
+    }
+
+    private void summarize(List<String> out) {
+        for (Map.Entry<String, AtomicInteger> entry : overflow.entrySet()) {
+            int count = entry.getValue().getAndSet(0);
+            if (count > 0) {
+                suppressed.merge(entry.getKey(), count, Integer::sum);
+                suppressedTotal.addAndGet(count);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : suppressed.entrySet()) {
+            out.add(render("&7…and " + entry.getValue() + " more lines from " + entry.getKey()));
+        }
+        suppressed.clear();
+    }
+
+    private String render(String message) {
+        String colored = ChatColor.translateAlternateColorCodes('&', message);
+        return plugin.isColoredConsole() ? colored : ChatColor.stripColor(colored);
+    }
+
+    /**
+     * Stop the writer and write what is still queued, still within the rate cap (disable)
+     */
+    public void shutdown() {
+        Thread thread = worker;
+        if (thread == null) return;
+
+        worker = null;
+        thread.interrupt();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Line> rest = new ArrayList<>(queue.size());
+        queue.drainTo(rest);
+        flush(rest);
+
+        List<String> out = new ArrayList<>();
+        summarize(out);
+        if (!out.isEmpty()) {
+            plugin.getServer().getConsoleSender().sendMessage(out.toArray(new String[0]));
+        }
+    }
+
+    public boolean isAsync() {
+        return worker != null;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Lines replaced by a summary, over the rate cap or with the queue full
+     */
+    public long getSuppressedCount() {
+        return suppressedTotal.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getMaxLinesPerSecond() {
+        return maxLinesPerSecond;
+    }
+
+    private static final class Line {
+        private final String source;
+        private final String message;
+
+        private Line(String source, String message) {
+            this.source = source;
+            this.message = message;
+        }
+    }
+}
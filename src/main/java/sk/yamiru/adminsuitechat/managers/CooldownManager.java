@@ -1,50 +1,194 @@
 package sk.yamiru.adminsuitechat.managers;
 
+import sk.yamiru.adminsuitechat.utils.TimerWheel;
+
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Cooldowns per player and queue (helpme1, helpme2, ...)
+ * Stored in parallel primitive arrays with open addressing (UUID halves, queue number, expiry millis),
+ * so no boxed values or map entries are kept per cooldown
+ */
 public class CooldownManager {
 
-    private final Map<UUID, Long> cooldowns;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final TimerWheel expiry;
+    // Queue id -> number stored in the table, 0 marks a free slot
+    private final Map<String, Integer> queueNumbers = new ConcurrentHashMap<>();
+    private final AtomicInteger nextQueueNumber = new AtomicInteger(1);
+
+    // Guarded by this
+    private long[] mostBits;
+    private long[] leastBits;
+    private int[] queues;
+    private long[] expiries;
+    private int size;
+
+    /**
+     * @param expiry removes cooldowns once they run out, also for players who left
+     */
+    public CooldownManager(TimerWheel expiry) {
+        this.expiry = expiry;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void setCooldown(UUID playerId, String queue, int seconds) {
+        int queueNumber = queueNumber(queue);
+        long expireTime = System.currentTimeMillis() + (seconds * 1000L);
+        put(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(), queueNumber, expireTime);
+        // Only removes this cooldown, a newer one for the same player and queue stays
+        expiry.schedule(seconds * 1000L, () -> remove(playerId, queueNumber, expireTime));
+    }
 
-    public CooldownManager() {
-        this.cooldowns = new ConcurrentHashMap<>();
+    public boolean hasCooldown(UUID playerId, String queue) {
+        return getRemainingMillis(playerId, queue) > 0;
     }
 
-    public void setCooldown(UUID playerId, int seconds) {
-        cooldowns.put(playerId, System.currentTimeMillis() + (seconds * 1000L));
+    public long getRemainingCooldown(UUID playerId, String queue) {
+        return getRemainingMillis(playerId, queue) / 1000;
     }
 
-    public boolean hasCooldown(UUID playerId) {
-        Long expireTime = cooldowns.get(playerId);
-        if (expireTime == null) {
-            return false;
+    private synchronized long getRemainingMillis(UUID playerId, String queue) {
+        Integer queueNumber = queueNumbers.get(queue);
+        if (queueNumber == null) {
+            return 0;
         }
-        
-        if (System.currentTimeMillis() >= expireTime) {
-            cooldowns.remove(playerId);
-            return false;
+
+        int index = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(), queueNumber);
+        if (index < 0) {
+            return 0;
         }
-        
-        return true;
-    }
 
-    public long getRemainingCooldown(UUID playerId) {
-        Long expireTime = cooldowns.get(playerId);
-        if (expireTime == null) {
+        long remaining = expiries[index] - System.currentTimeMillis();
+        if (remaining <= 0) {
+            removeAt(index);
             return 0;
         }
-        
-        long remaining = (expireTime - System.currentTimeMillis()) / 1000;
-        return Math.max(0, remaining);
+        return remaining;
+    }
+
+    public synchronized void removeCooldown(UUID playerId, String queue) {
+        Integer queueNumber = queueNumbers.get(queue);
+        if (queueNumber == null) {
+            return;
+        }
+
+        int index = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(), queueNumber);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    private synchronized void remove(UUID playerId, int queueNumber, long expireTime) {
+        int index = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(), queueNumber);
+        if (index >= 0 && expiries[index] == expireTime) {
+            removeAt(index);
+        }
+    }
+
+    /**
+     * Running cooldowns over all players and queues
+     */
+    public synchronized int getTrackedCount() {
+        return size;
+    }
+
+    public synchronized void clearAll() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private int queueNumber(String queue) {
+        return queueNumbers.computeIfAbsent(queue, q -> nextQueueNumber.getAndIncrement());
+    }
+
+    private synchronized void put(long most, long least, int queue, long expireTime) {
+        int index = find(most, least, queue);
+        if (index >= 0) {
+            expiries[index] = expireTime;
+            return;
+        }
+
+        // Keep at most half full so probe sequences stay short
+        if ((size + 1) * 2 > queues.length) {
+            resize(queues.length * 2);
+        }
+        insert(most, least, queue, expireTime);
+    }
+
+    private int find(long most, long least, int queue) {
+        int mask = queues.length - 1;
+        for (int i = slot(most, least, queue, mask); queues[i] != 0; i = (i + 1) & mask) {
+            if (queues[i] == queue && mostBits[i] == most && leastBits[i] == least) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long most, long least, int queue, long expireTime) {
+        int mask = queues.length - 1;
+        int i = slot(most, least, queue, mask);
+        while (queues[i] != 0) {
+            i = (i + 1) & mask;
+        }
+
+        mostBits[i] = most;
+        leastBits[i] = least;
+        queues[i] = queue;
+        expiries[i] = expireTime;
+        size++;
+    }
+
+    /**
+     * Linear probing delete: later entries of the probe run are shifted back, no tombstones needed
+     */
+    private void removeAt(int index) {
+        int mask = queues.length - 1;
+        int hole = index;
+        for (int i = (hole + 1) & mask; queues[i] != 0; i = (i + 1) & mask) {
+            int home = slot(mostBits[i], leastBits[i], queues[i], mask);
+            // Entry may move into the hole when the hole lies between its home slot and its position
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                mostBits[hole] = mostBits[i];
+                leastBits[hole] = leastBits[i];
+                queues[hole] = queues[i];
+                expiries[hole] = expiries[i];
+                hole = i;
+            }
+        }
+
+        queues[hole] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        int[] oldQueues = queues;
+        long[] oldExpiries = expiries;
+
+        allocate(capacity);
+        for (int i = 0; i < oldQueues.length; i++) {
+            if (oldQueues[i] != 0) {
+                insert(oldMost[i], oldLeast[i], oldQueues[i], oldExpiries[i]);
+            }
+        }
     }
 
-    public void removeCooldown(UUID playerId) {
-        cooldowns.remove(playerId);
+    private void allocate(int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        queues = new int[capacity];
+        expiries = new long[capacity];
+        size = 0;
     }
 
-    public void clearAll() {
-        cooldowns.clear();
+    private static int slot(long most, long least, int queue, int mask) {
+        long hash = (most ^ least ^ (queue * 0x9E3779B97F4A7C15L)) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ (hash >>> 32)) & mask;
     }
 }
@@ -0,0 +1,203 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.Settings;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Debug tracing for hot paths
+ * Messages are "{}" templates with arguments, nothing is formatted or allocated while debug and tracing are off
+ * With tracing on, the last events per player and per channel are kept in lock-free rings for /asc debug dump
+ */
+public class DebugTrace {
+
+    public static final String PLAYER_PREFIX = "player:";
+    public static final String CHANNEL_PREFIX = "channel:";
+
+    // Upper bound for rings, further players/channels are not traced until the next reload
+    private static final int MAX_RINGS = 512;
+
+    private final AdminSuiteChat plugin;
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean console;
+    private volatile boolean tracing;
+    private volatile int ringSize;
+
+    public DebugTrace(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Apply settings snapshot (enable and reload), rings are cleared when their size changes
+     */
+    public void configure(Settings settings) {
+        int size = Math.max(1, settings.getTraceSize());
+        if (size != ringSize || !settings.isTrace()) {
+            rings.clear();
+        }
+
+        ringSize = size;
+        tracing = settings.isTrace();
+        console = settings.isDebug();
+    }
+
+    /**
+     * Whether events are used at all, callers may skip building arguments when false
+     */
+    public boolean isEnabled() {
+        return console || tracing;
+    }
+
+    public void trace(String player, String channel, String template) {
+        if (console || tracing) record(player, channel, template, null, null, null);
+    }
+
+    public void trace(String player, String channel, String template, Object arg1) {
+        if (console || tracing) record(player, channel, template, arg1, null, null);
+    }
+
+    public void trace(String player, String channel, String template, Object arg1, Object arg2) {
+        if (console || tracing) record(player, channel, template, arg1, arg2, null);
+    }
+
+    public void trace(String player, String channel, String template, Object arg1, Object arg2, Object arg3) {
+        if (console || tracing) record(player, channel, template, arg1, arg2, arg3);
+    }
+
+    private void record(String player, String channel, String template, Object arg1, Object arg2, Object arg3) {
+        Event event = new Event(sequence.getAndIncrement(), System.currentTimeMillis(), template, arg1, arg2, arg3);
+
+        if (console) {
+            plugin.getConsoleSink().submit("debug", "&7[DEBUG] &f" + event.format());
+        }
+
+        if (tracing) {
+            if (player != null) ring(PLAYER_PREFIX + player.toLowerCase()).add(event);
+            if (channel != null) ring(CHANNEL_PREFIX + channel.toLowerCase()).add(event);
+        }
+    }
+
+    private Ring ring(String key) {
+        Ring ring = rings.get(key);
+        if (ring != null) return ring;
+
+        if (rings.size() >= MAX_RINGS) return Ring.DISCARD;
+        return rings.computeIfAbsent(key, k -> new Ring(ringSize));
+    }
+
+    /**
+     * Formatted events of one ring, oldest first ("player:name" or "channel:id")
+     */
+    public List<String> dump(String key) {
+        Ring ring = rings.get(key.toLowerCase());
+        List<String> lines = new ArrayList<>();
+        if (ring == null) return lines;
+
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        for (Event event : ring.snapshot()) {
+            lines.add(timeFormat.format(new Date(event.time)) + " " + event.format());
+        }
+        return lines;
+    }
+
+    /**
+     * Traced keys with the number of events kept
+     */
+    public Map<String, Integer> getRings() {
+        Map<String, Integer> keys = new TreeMap<>();
+        for (Map.Entry<String, Ring> entry : rings.entrySet()) {
+            keys.put(entry.getKey(), entry.getValue().snapshot().size());
+        }
+        return keys;
+    }
+
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    /**
+     * Fill "{}" placeholders in order
+     */
+    static String format(String template, Object arg1, Object arg2, Object arg3) {
+        if (arg1 == null && arg2 == null && arg3 == null) return template;
+
+        StringBuilder out = new StringBuilder(template.length() + 32);
+        Object[] args = {arg1, arg2, arg3};
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0 && argIndex < args.length) {
+            out.append(template, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        return out.append(template, start, template.length()).toString();
+    }
+
+    private static final class Event {
+        private final long sequence;
+        private final long time;
+        private final String template;
+        private final Object arg1;
+        private final Object arg2;
+        private final Object arg3;
+
+        private Event(long sequence, long time, String template, Object arg1, Object arg2, Object arg3) {
+            this.sequence = sequence;
+            this.time = time;
+            this.template = template;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            this.arg3 = arg3;
+        }
+
+        private String format() {
+            return DebugTrace.format(template, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * Fixed-size ring, writers claim a slot with one atomic increment and never block
+     */
+    private static class Ring {
+        private static final Ring DISCARD = new Ring(1) {
+            @Override
+            void add(Event event) {
+            }
+        };
+
+        private final AtomicReferenceArray<Event> slots;
+        private final AtomicLong next = new AtomicLong();
+
+        Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        void add(Event event) {
+            int slot = (int) (next.getAndIncrement() % slots.length());
+            slots.set(slot, event);
+        }
+
+        List<Event> snapshot() {
+            List<Event> events = new ArrayList<>(slots.length());
+            for (int i = 0; i < slots.length(); i++) {
+                Event event = slots.get(i);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            events.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+            return events;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads channel broadcasts over ticks so large fanouts do not spike a single tick
+ * Messages are delivered in FIFO order (so per channel ordering is kept) within a per-tick message and time budget
+ * A broadcast that fits the rest of the tick's budget while nothing is queued is sent right away
+ */
+public class DeliveryScheduler {
+
+    // Upper bounds of the queue delay histogram in milliseconds, the last bucket is open
+    private static final long[] DELAY_BUCKETS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    // How many sends between budget clock checks
+    private static final int CLOCK_CHECK_INTERVAL = 16;
+
+    private final AdminSuiteChat plugin;
+    private final Queue<Delivery> queue = new ConcurrentLinkedQueue<>();
+    private volatile BukkitTask task;
+
+    private volatile boolean enabled;
+    private int maxMessagesPerTick;
+    private long maxNanosPerTick;
+    // Messages left in this tick's budget, refilled by drain at the start of every tick
+    private final AtomicInteger tickBudget = new AtomicInteger();
+    private final AtomicLong deliveredInline = new AtomicLong();
+
+    // Written on the main thread only, read by deliver to see a backlog
+    private volatile Delivery current;
+    private final long[] delayHistogram = new long[DELAY_BUCKETS_MS.length + 1];
+    private long delivered;
+    private long maxDelayMs;
+    private long budgetExhaustedTicks;
+
+    public DeliveryScheduler(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load budget from config and start draining (main thread, also used on reload)
+     */
+    public void initialize() {
+        enabled = plugin.getConfig().getBoolean("settings.delivery.enabled", true);
+        maxMessagesPerTick = Math.max(1, plugin.getConfig().getInt("settings.delivery.max-messages-per-tick", 400));
+        double maxMillis = plugin.getConfig().getDouble("settings.delivery.max-millis-per-tick", 2.0);
+        maxNanosPerTick = Math.max(1, (long) (maxMillis * 1_000_000));
+
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+
+        plugin.debugMessage(() -> "Delivery scheduler " + (enabled ? "enabled" : "disabled")
+                + " (budget " + maxMessagesPerTick + " messages / " + maxMillis + " ms per tick)");
+    }
+
+    /**
+     * Broadcast message to everyone holding the permission (safe from any thread)
+     */
+    public void deliver(String permission, String message) {
+        Player[] recipients = plugin.getRecipientIndex().getRecipients(permission).toArray(new Player[0]);
+        if (recipients.length == 0) return;
+
+        // Disabling keeps queueing until the backlog is gone so ordering holds
+        boolean backlog = current != null || !queue.isEmpty();
+        if (task == null || (!enabled && !backlog)) {
+            sendAll(recipients, message);
+            return;
+        }
+
+        // Nothing waiting and enough budget left, queueing would only add a tick of delay
+        if (!backlog && reserveBudget(recipients.length)) {
+            sendAll(recipients, message);
+            deliveredInline.incrementAndGet();
+            return;
+        }
+
+        queue.add(new Delivery(message, recipients, System.nanoTime()));
+    }
+
+    private boolean reserveBudget(int messages) {
+        while (true) {
+            int left = tickBudget.get();
+            if (left < messages) return false;
+            if (tickBudget.compareAndSet(left, left - messages)) return true;
+        }
+    }
+
+    private static void sendAll(Player[] recipients, String message) {
+        for (Player recipient : recipients) {
+            recipient.sendMessage(message);
+        }
+    }
+
+    /**
+     * Send queued messages until the tick budget is used up, a partly sent broadcast continues next tick
+     */
+    private void drain() {
+        tickBudget.set(maxMessagesPerTick);
+        if (current == null && queue.isEmpty()) return;
+
+        long start = System.nanoTime();
+        int sent = 0;
+
+        while (true) {
+            if (current == null) {
+                // Peek first, so deliver never sees an empty queue and no current while one is taken
+                current = queue.peek();
+                if (current == null) return;
+                queue.poll();
+            }
+
+            while (current.next < current.recipients.length) {
+                if (sent >= maxMessagesPerTick
+                        || (sent % CLOCK_CHECK_INTERVAL == 0 && sent > 0 && System.nanoTime() - start >= maxNanosPerTick)) {
+                    budgetExhaustedTicks++;
+                    tickBudget.set(0);
+                    return;
+                }
+
+                Player recipient = current.recipients[current.next++];
+                if (recipient.isOnline()) {
+                    recipient.sendMessage(current.message);
+                    sent++;
+                }
+            }
+
+            recordDelay(current);
+            current = null;
+            // Backlog is gone, later broadcasts this tick may go inline with what is left
+            if (queue.isEmpty()) {
+                tickBudget.set(maxMessagesPerTick - sent);
+            }
+        }
+    }
+
+    private void recordDelay(Delivery delivery) {
+        long delayMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - delivery.enqueuedAt);
+        int bucket = 0;
+        while (bucket < DELAY_BUCKETS_MS.length && delayMs > DELAY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+
+        delayHistogram[bucket]++;
+        delivered++;
+        if (delayMs > maxDelayMs) {
+            maxDelayMs = delayMs;
+        }
+    }
+
+    /**
+     * Send everything still queued right away (shutdown)
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        if (current != null) {
+            for (int i = current.next; i < current.recipients.length; i++) {
+                if (current.recipients[i].isOnline()) {
+                    current.recipients[i].sendMessage(current.message);
+                }
+            }
+            current = null;
+        }
+
+        Delivery delivery;
+        while ((delivery = queue.poll()) != null) {
+            for (Player recipient : delivery.recipients) {
+                if (recipient.isOnline()) {
+                    recipient.sendMessage(delivery.message);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Broadcasts waiting for delivery, including one that is partly sent
+     */
+    public int getQueueSize() {
+        return queue.size() + (current != null ? 1 : 0);
+    }
+
+    /**
+     * Queued broadcasts fully sent, see {@link #getInlineCount()} for those sent right away
+     */
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    public long getInlineCount() {
+        return deliveredInline.get();
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    public long getBudgetExhaustedTicks() {
+        return budgetExhaustedTicks;
+    }
+
+    public int getMaxMessagesPerTick() {
+        return maxMessagesPerTick;
+    }
+
+    public double getMaxMillisPerTick() {
+        return maxNanosPerTick / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound of the delay bucket containing the given percentile (0-100), -1 for the open last bucket
+     */
+    public long getDelayPercentileMs(double percentile) {
+        if (delivered == 0) return 0;
+
+        long target = (long) Math.ceil(delivered * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < DELAY_BUCKETS_MS.length; i++) {
+            seen += delayHistogram[i];
+            if (seen >= target) {
+                return DELAY_BUCKETS_MS[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Delay histogram lines "<=bound ms: count"
+     */
+    public String[] getDelayHistogram() {
+        String[] lines = new String[delayHistogram.length];
+        for (int i = 0; i < delayHistogram.length; i++) {
+            String bound = i < DELAY_BUCKETS_MS.length
+                    ? "<=" + DELAY_BUCKETS_MS[i] + " ms"
+                    : ">" + DELAY_BUCKETS_MS[DELAY_BUCKETS_MS.length - 1] + " ms";
+            lines[i] = bound + ": " + delayHistogram[i];
+        }
+        return lines;
+    }
+
+    private static final class Delivery {
+        private final String message;
+        private final Player[] recipients;
+        private final long enqueuedAt;
+        private int next;
+
+        private Delivery(String message, Player[] recipients, long enqueuedAt) {
+            this.message = message;
+            this.recipients = recipients;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.entity.Player;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.Settings;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catches players repeating (nearly) the same message slowly enough to pass the rate limit
+ * Each player keeps a fixed ring of 64-bit SimHash fingerprints of recent messages, the text itself is never stored
+ */
+public class DuplicateDetector {
+
+    private enum Result {
+        OK,
+        // Repeated, but let through and reported (action: flag)
+        FLAGGED,
+        BLOCKED
+    }
+
+    private final AdminSuiteChat plugin;
+    private final Map<UUID, History> histories = new ConcurrentHashMap<>();
+    private volatile Settings.Duplicates settings;
+
+    public DuplicateDetector(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+        configure(plugin.getSettings());
+    }
+
+    /**
+     * Apply settings snapshot (enable and reload), histories are kept unless their size changes
+     */
+    public void configure(Settings settings) {
+        Settings.Duplicates next = settings.getDuplicates();
+        Settings.Duplicates previous = this.settings;
+        this.settings = next;
+
+        if (previous == null || previous.getHistory() != next.getHistory() || !next.isEnabled()) {
+            histories.clear();
+        }
+    }
+
+    /**
+     * Duplicate check for a channel message or helpme request (safe from any thread)
+     * A blocked message is refused with a message to the player, a flagged one is reported to console
+     *
+     * @param source channel or helpme id, shown when a repeated message is only flagged
+     * @return false when the message must not be sent
+     */
+    public boolean check(Player player, String source, String message) {
+        switch (match(player, message)) {
+            case BLOCKED:
+                player.sendMessage(plugin.getMessageUtils().getMessage("anti-spam-duplicate"));
+                return false;
+            case FLAGGED:
+                plugin.getConsoleSink().submit("anti-spam", "&e[Anti-Spam] &f" + player.getName() + " &7repeated a message in &f" + source);
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Compare message against the player's recent fingerprints and remember it
+     */
+    private Result match(Player player, String message) {
+        Settings.Duplicates current = settings;
+        if (!current.isEnabled() || message.length() < current.getMinLength()) return Result.OK;
+        if (player.hasPermission("adminsuitechat.bypass.antispam")) return Result.OK;
+
+        long fingerprint = simHash(message);
+        long now = System.currentTimeMillis();
+        History history = histories.computeIfAbsent(player.getUniqueId(), id -> new History(current.getHistory()));
+
+        int distance = history.record(fingerprint, now, now - current.getWindowMillis());
+        if (distance > current.getMaxDistance()) {
+            return Result.OK;
+        }
+
+        plugin.getDebugTrace().trace(player.getName(), null, "{} repeated a message ({} bits apart)", player.getName(), distance);
+        return current.isBlock() ? Result.BLOCKED : Result.FLAGGED;
+    }
+
+    public void evict(UUID playerId) {
+        histories.remove(playerId);
+    }
+
+    /**
+     * Players with a fingerprint history
+     */
+    public int getTrackedCount() {
+        return histories.size();
+    }
+
+    public void clear() {
+        histories.clear();
+    }
+
+    /**
+     * 64-bit SimHash over character trigrams of the normalized text
+     * Letters and digits are lowercased, every other run of characters counts as one space,
+     * so case, punctuation and spacing tricks do not change the fingerprint much
+     */
+    static long simHash(String message) {
+        int[] weights = new int[64];
+        char first = 0;
+        char second = 0;
+        char previous = ' ';
+        int length = 0;
+
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            char normalized;
+            if (Character.isLetterOrDigit(c)) {
+                normalized = Character.toLowerCase(c);
+            } else if (previous == ' ') {
+                continue;
+            } else {
+                normalized = ' ';
+            }
+
+            previous = normalized;
+            if (++length >= 3) {
+                addFeature(weights, mix(((long) first << 32) | ((long) second << 16) | normalized));
+            }
+            first = second;
+            second = normalized;
+        }
+
+        // Too short for a trigram, fingerprint the characters there are
+        if (length < 3) {
+            addFeature(weights, mix(((long) first << 16) | second));
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private static void addFeature(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    // SplitMix64 finalizer, spreads the packed trigram over all 64 bits
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Fixed ring of fingerprints with the time they were seen
+     */
+    private static final class History {
+        private final long[] fingerprints;
+        private final long[] times;
+        private int next;
+        private int size;
+
+        private History(int capacity) {
+            this.fingerprints = new long[capacity];
+            this.times = new long[capacity];
+        }
+
+        /**
+         * Add fingerprint and return the smallest Hamming distance to one seen after since, 65 when there is none
+         */
+        synchronized int record(long fingerprint, long time, long since) {
+            int closest = 65;
+            for (int i = 0; i < size; i++) {
+                if (times[i] >= since) {
+                    closest = Math.min(closest, Long.bitCount(fingerprint ^ fingerprints[i]));
+                }
+            }
+
+            fingerprints[next] = fingerprint;
+            times[next] = time;
+            next = (next + 1) % fingerprints.length;
+            if (size < fingerprints.length) {
+                size++;
+            }
+            return closest;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package sk.yamiru.adminsuitechat.managers;
+
+/**
+ * When written log entries are forced to disk (logging.durability)
+ * none = left to the OS, interval:<ms> = at most every <ms>, every:<n> = after <n> entries, always = after every batch
+ */
+public final class LogDurability {
+
+    public enum Mode {
+        NONE, INTERVAL, EVERY, ALWAYS
+    }
+
+    public static final LogDurability NONE = new LogDurability(Mode.NONE, 0);
+    public static final LogDurability ALWAYS = new LogDurability(Mode.ALWAYS, 0);
+
+    private final Mode mode;
+    private final long value;
+
+    private LogDurability(Mode mode, long value) {
+        this.mode = mode;
+        this.value = value;
+    }
+
+    /**
+     * Parse config value, e.g. "none", "interval:1000", "every:100" or "always"
+     *
+     * @throws IllegalArgumentException for unknown or non-positive values
+     */
+    public static LogDurability parse(String text) {
+        String value = text == null ? "" : text.trim().toLowerCase();
+
+        if (value.equals("none")) return NONE;
+        if (value.equals("always")) return ALWAYS;
+
+        int separator = value.indexOf(':');
+        if (separator > 0) {
+            String mode = value.substring(0, separator);
+            long amount;
+            try {
+                amount = Long.parseLong(value.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid durability value: " + text);
+            }
+            if (amount <= 0) {
+                throw new IllegalArgumentException("Durability value must be positive: " + text);
+            }
+
+            if (mode.equals("interval")) return new LogDurability(Mode.INTERVAL, amount);
+            if (mode.equals("every")) return new LogDurability(Mode.EVERY, amount);
+        }
+
+        throw new IllegalArgumentException("Unknown durability policy: " + text);
+    }
+
+    /**
+     * Decide whether unsynced entries have to be forced now
+     *
+     * @param unsyncedEntries entries written since the last sync
+     * @param sinceLastSyncMs time since the last sync
+     */
+    public boolean shouldSync(long unsyncedEntries, long sinceLastSyncMs) {
+        if (unsyncedEntries <= 0) return false;
+
+        return switch (mode) {
+            case ALWAYS -> true;
+            case EVERY -> unsyncedEntries >= value;
+            case INTERVAL -> sinceLastSyncMs >= value;
+            case NONE -> false;
+        };
+    }
+
+    /**
+     * Files are forced before closing unless the OS is left in charge
+     */
+    public boolean syncsOnClose() {
+        return mode != Mode.NONE;
+    }
+
+    /**
+     * Sync interval in milliseconds, 0 for modes without a timer
+     */
+    public long getIntervalMs() {
+        return mode == Mode.INTERVAL ? value : 0;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public String toString() {
+        return switch (mode) {
+            case INTERVAL -> "interval:" + value;
+            case EVERY -> "every:" + value;
+            default -> mode.name().toLowerCase();
+        };
+    }
+}
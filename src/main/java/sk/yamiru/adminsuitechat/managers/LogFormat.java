@@ -0,0 +1,434 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import sk.yamiru.adminsuitechat.utils.ByteSink;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * On-disk encoding of log entries (logging.format)
+ * Entries are encoded straight into the writer's reusable buffer, the format also decodes them for log search
+ */
+public enum LogFormat {
+
+    /**
+     * [yyyy-MM-dd HH:mm:ss] [CHANNEL] player: message
+     */
+    TEXT(".log", LogFormat::parseTextLine) {
+        @Override
+        void encode(LogWriter.LogEntry entry, byte[] timestamp, ByteSink out) {
+            out.write('[');
+            out.write(timestamp);
+            out.writeAscii("] [");
+            out.writeUtf8(entry.getChannel());
+            out.writeAscii("] ");
+            out.writeUtf8(entry.getPlayerName());
+            out.writeAscii(": ");
+            out.writeUtf8(entry.getMessage());
+            out.write(LINE_SEPARATOR);
+        }
+    },
+
+    /**
+     * One JSON object per line: {"ts":millis,"channel":"STAFF","uuid":"...","player":"name","message":"..."}
+     */
+    JSON_LINES(".jsonl", line -> new JsonLineParser(line).parse()) {
+        @Override
+        void encode(LogWriter.LogEntry entry, byte[] timestamp, ByteSink out) {
+            out.writeAscii("{\"ts\":");
+            out.writeDecimal(entry.getTimestamp());
+            out.writeAscii(",\"channel\":");
+            out.writeJsonString(entry.getChannel());
+            if (entry.getPlayerId() != null) {
+                out.writeAscii(",\"uuid\":\"");
+                writeUuid(entry.getPlayerId(), out);
+                out.write('"');
+            }
+            out.writeAscii(",\"player\":");
+            out.writeJsonString(entry.getPlayerName());
+            out.writeAscii(",\"message\":");
+            out.writeJsonString(entry.getMessage());
+            out.writeAscii("}\n");
+        }
+    },
+
+    /**
+     * Length-prefixed records, see {@link #decodeRecord(byte[], int, int)}
+     */
+    BINARY(".binlog", null) {
+        @Override
+        void encode(LogWriter.LogEntry entry, byte[] timestamp, ByteSink out) {
+            int start = out.size();
+            out.writeInt(0);
+            out.write(BINARY_VERSION);
+            out.writeLong(entry.getTimestamp());
+            UUID playerId = entry.getPlayerId();
+            out.writeLong(playerId != null ? playerId.getMostSignificantBits() : 0L);
+            out.writeLong(playerId != null ? playerId.getLeastSignificantBits() : 0L);
+            writeShortString(entry.getChannel(), out);
+            writeShortString(entry.getPlayerName(), out);
+
+            int messageStart = out.size();
+            out.writeInt(0);
+            out.writeUtf8(entry.getMessage());
+            out.setInt(messageStart, out.size() - messageStart - 4);
+
+            out.setInt(start, out.size() - start - 4);
+        }
+    };
+
+    /**
+     * Decodes one line of a line-based format
+     */
+    @FunctionalInterface
+    public interface LineParser {
+        /**
+         * @return entry without file name, null if the line is not a log entry
+         */
+        LogWriter.LogEntry parse(String line);
+    }
+
+    public static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Records larger than this are treated as corruption by readers
+    public static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    private static final byte BINARY_VERSION = 1;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final String extension;
+    private final LineParser lineParser;
+
+    LogFormat(String extension, LineParser lineParser) {
+        this.extension = extension;
+        this.lineParser = lineParser;
+    }
+
+    /**
+     * Append encoded entry to the buffer
+     *
+     * @param timestamp formatted timestamp (yyyy-MM-dd HH:mm:ss), cached by the writer per second
+     */
+    abstract void encode(LogWriter.LogEntry entry, byte[] timestamp, ByteSink out);
+
+    /**
+     * Parser for one line of this format, null for record based formats (read with {@link #decodeRecord(byte[], int, int)})
+     */
+    public LineParser getLineParser() {
+        return lineParser;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * File name in this format for a configured log file name (staff.log -> staff.jsonl)
+     */
+    public String fileNameFor(String configured) {
+        String name = configured.endsWith(".log") ? configured.substring(0, configured.length() - 4) : configured;
+        return name + extension;
+    }
+
+    /**
+     * logging.format: text, json or binary
+     */
+    public static LogFormat fromConfig(String value) {
+        if (value == null) return TEXT;
+
+        return switch (value.toLowerCase()) {
+            case "json", "jsonl", "json-lines" -> JSON_LINES;
+            case "binary" -> BINARY;
+            default -> TEXT;
+        };
+    }
+
+    /**
+     * Format of a log file, rotated segment or compressed segment, null for other files
+     */
+    public static LogFormat ofFile(String filename) {
+        String name = filename.endsWith(".gz") ? filename.substring(0, filename.length() - 3) : filename;
+        for (LogFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isLogFile(String filename) {
+        return ofFile(filename) != null;
+    }
+
+    /**
+     * File name without .gz and format extension (staff.jsonl.gz -> staff)
+     */
+    public static String stripExtension(String filename) {
+        String name = filename.endsWith(".gz") ? filename.substring(0, filename.length() - 3) : filename;
+        LogFormat format = ofFile(name);
+        return format != null ? name.substring(0, name.length() - format.extension.length()) : name;
+    }
+
+    public static String formatTimestamp(long timestamp) {
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timestamp));
+    }
+
+    /**
+     * Binary record body (after the 4-byte length prefix):
+     * version, epoch millis, UUID (two longs, zero when unknown), channel, player and message (length-prefixed UTF-8)
+     *
+     * @return decoded entry, null when the record is malformed or of an unknown version
+     */
+    public static LogWriter.LogEntry decodeRecord(byte[] data, int offset, int length) {
+        int end = offset + length;
+        if (length < 1 + 8 + 16 + 2 + 2 + 4 || data[offset] != BINARY_VERSION) return null;
+
+        int position = offset + 1;
+        long timestamp = readLong(data, position);
+        long most = readLong(data, position + 8);
+        long least = readLong(data, position + 16);
+        position += 24;
+
+        int channelLength = readShort(data, position);
+        position += 2;
+        if (position + channelLength + 2 > end) return null;
+        String channel = new String(data, position, channelLength, StandardCharsets.UTF_8);
+        position += channelLength;
+
+        int playerLength = readShort(data, position);
+        position += 2;
+        if (position + playerLength + 4 > end) return null;
+        String player = new String(data, position, playerLength, StandardCharsets.UTF_8);
+        position += playerLength;
+
+        int messageLength = readInt(data, position);
+        position += 4;
+        if (messageLength < 0 || position + messageLength > end) return null;
+        String message = new String(data, position, messageLength, StandardCharsets.UTF_8);
+
+        UUID playerId = most == 0 && least == 0 ? null : new UUID(most, least);
+        return new LogWriter.LogEntry(null, channel, playerId, player, message, timestamp);
+    }
+
+    public static int readInt(byte[] data, int position) {
+        return ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16)
+                | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+    }
+
+    private static int readShort(byte[] data, int position) {
+        return ((data[position] & 0xFF) << 8) | (data[position + 1] & 0xFF);
+    }
+
+    private static long readLong(byte[] data, int position) {
+        return ((long) readInt(data, position) << 32) | (readInt(data, position + 4) & 0xFFFFFFFFL);
+    }
+
+    private static void writeShortString(String value, ByteSink out) {
+        int start = out.size();
+        out.writeShort(0);
+        out.writeUtf8(value);
+        // The prefix holds at most 0xFFFF, longer values are cut so prefix and data always match
+        out.setShort(start, out.truncateUtf8(start + 2, 0xFFFF));
+    }
+
+    /**
+     * Canonical 36-char UUID form written without creating a String
+     */
+    private static void writeUuid(UUID uuid, ByteSink out) {
+        writeHex(uuid.getMostSignificantBits() >>> 32, 8, out);
+        out.write('-');
+        writeHex(uuid.getMostSignificantBits() >>> 16, 4, out);
+        out.write('-');
+        writeHex(uuid.getMostSignificantBits(), 4, out);
+        out.write('-');
+        writeHex(uuid.getLeastSignificantBits() >>> 48, 4, out);
+        out.write('-');
+        writeHex(uuid.getLeastSignificantBits(), 12, out);
+    }
+
+    private static void writeHex(long value, int digits, ByteSink out) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out.write(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * Line parser of TEXT
+     */
+    private static LogWriter.LogEntry parseTextLine(String line) {
+        if (line.length() < 25 || line.charAt(0) != '[' || line.charAt(20) != ']' || line.charAt(22) != '[') return null;
+
+        int channelEnd = line.indexOf("] ", 23);
+        if (channelEnd < 0) return null;
+        int playerEnd = line.indexOf(": ", channelEnd + 2);
+        if (playerEnd < 0) return null;
+
+        long timestamp = parseTimestamp(line);
+        if (timestamp == Long.MIN_VALUE) return null;
+
+        return new LogWriter.LogEntry(null, line.substring(23, channelEnd), null,
+                line.substring(channelEnd + 2, playerEnd), line.substring(playerEnd + 2), timestamp);
+    }
+
+    /**
+     * Parse "yyyy-MM-dd HH:mm:ss" at position 1 of a text line without a formatter
+     */
+    private static long parseTimestamp(String line) {
+        try {
+            LocalDateTime time = LocalDateTime.of(
+                    digits(line, 1, 4), digits(line, 6, 2), digits(line, 9, 2),
+                    digits(line, 12, 2), digits(line, 15, 2), digits(line, 18, 2));
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException | NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a digit: " + c);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Minimal parser for the flat objects written by JSON_LINES
+     */
+    private static final class JsonLineParser {
+        private final String line;
+        private int position;
+
+        private JsonLineParser(String line) {
+            this.line = line;
+        }
+
+        private LogWriter.LogEntry parse() {
+            long timestamp = Long.MIN_VALUE;
+            String channel = null;
+            UUID playerId = null;
+            String player = null;
+            String message = null;
+
+            try {
+                skipWhitespace();
+                expect('{');
+                skipWhitespace();
+                if (peek() == '}') return null;
+
+                while (true) {
+                    skipWhitespace();
+                    String key = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+
+                    switch (key) {
+                        case "ts" -> timestamp = readNumber();
+                        case "channel" -> channel = readString();
+                        case "uuid" -> playerId = UUID.fromString(readString());
+                        case "player" -> player = readString();
+                        case "message" -> message = readString();
+                        default -> skipValue();
+                    }
+
+                    skipWhitespace();
+                    if (peek() == ',') {
+                        position++;
+                        continue;
+                    }
+                    expect('}');
+                    break;
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                return null;
+            }
+
+            if (timestamp == Long.MIN_VALUE || channel == null || player == null || message == null) return null;
+            return new LogWriter.LogEntry(null, channel, playerId, player, message, timestamp);
+        }
+
+        private char peek() {
+            return line.charAt(position);
+        }
+
+        private void expect(char c) {
+            if (line.charAt(position++) != c) {
+                throw new IllegalArgumentException("Expected " + c);
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+
+        private long readNumber() {
+            int start = position;
+            while (position < line.length() && (Character.isDigit(line.charAt(position)) || line.charAt(position) == '-')) {
+                position++;
+            }
+            return Long.parseLong(line.substring(start, position));
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = null;
+            int start = position;
+
+            while (true) {
+                char c = line.charAt(position++);
+                if (c == '"') {
+                    if (value == null) return line.substring(start, position - 1);
+                    return value.toString();
+                }
+                if (value != null) {
+                    if (c != '\\') {
+                        value.append(c);
+                        continue;
+                    }
+                } else if (c == '\\') {
+                    value = new StringBuilder(line.length()).append(line, start, position - 1);
+                } else {
+                    continue;
+                }
+
+                char escaped = line.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+        }
+
+        private void skipValue() {
+            if (peek() == '"') {
+                readString();
+                return;
+            }
+            while (position < line.length() && line.charAt(position) != ',' && line.charAt(position) != '}') {
+                position++;
+            }
+        }
+    }
+}
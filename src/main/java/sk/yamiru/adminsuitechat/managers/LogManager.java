@@ -1,22 +1,53 @@
 package sk.yamiru.adminsuitechat.managers;
 
-import org.bukkit.Bukkit;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
 import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.utils.ParallelGzipOutputStream;
+import sk.yamiru.adminsuitechat.utils.TarArchiveWriter;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.zip.GZIPOutputStream;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 public class LogManager {
 
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
+    private static final String SEALED_MANIFEST = "manifest.txt";
+    private static final DateTimeFormatter SESSION_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").withZone(ZoneId.systemDefault());
+
     private final AdminSuiteChat plugin;
+    private final AtomicBoolean deferredCompressionRunning = new AtomicBoolean();
     private Path logDirectory;
     private Path archiveDirectory;
-    private SimpleDateFormat dateFormat;
-    private SimpleDateFormat filenameDateFormat;
+    private Path sealedDirectory;
+    private ArchiveIndex archiveIndex;
+    private LogWriter writer;
+    private ExecutorService segmentCompressor;
+    private LogFormat logFormat = LogFormat.TEXT;
+    // Read by the writer thread on roll, set before the writer starts
+    private boolean archiveCompression;
+    // Read on the compressor thread and the async cleanup task, set in initialize() before any task is handed to them
+    private volatile int maxArchives;
+    private volatile int retentionDays;
+    private volatile int compressionThreads;
+    private volatile int compressionLevel;
     private boolean enabled;
 
     public LogManager(AdminSuiteChat plugin) {
@@ -24,6 +55,9 @@ public class LogManager {
     }
 
     public void initialize() {
+        // Stop previous writer on reload so its files are flushed and closed
+        shutdown();
+
         enabled = plugin.getConfig().getBoolean("logging.enabled", true);
         if (!enabled) {
             return;
@@ -32,34 +66,86 @@ public class LogManager {
         // Setup directories
         logDirectory = plugin.getDataFolder().toPath().resolve("logs");
         archiveDirectory = plugin.getDataFolder().toPath().resolve("logs").resolve("archives");
+        sealedDirectory = plugin.getDataFolder().toPath().resolve("logs").resolve("sealed");
 
         // Create directories if they don't exist
         try {
             Files.createDirectories(logDirectory);
             Files.createDirectories(archiveDirectory);
+            Files.createDirectories(sealedDirectory);
         } catch (IOException e) {
             plugin.getLogger().severe("Failed to create log directories: " + e.getMessage());
             enabled = false;
             return;
         }
 
-        // Setup date formats
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        filenameDateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+        // Runtime rotation rolls a file once it passes max-log-size-mb
+        long maxLogBytes = 0;
+        if (plugin.getConfig().getBoolean("logging.rotation-enabled", true)) {
+            maxLogBytes = plugin.getConfig().getLong("logging.max-log-size-mb", 10) * 1024L * 1024L;
+        }
 
-        plugin.debugMessage("LogManager initialized - Directory: " + logDirectory.toString());
+        // Archive settings are read here once, compression and cleanup run off the main thread
+        archiveCompression = plugin.getConfig().getBoolean("logging.archive-compression", true);
+        maxArchives = plugin.getConfig().getInt("logging.max-archives", 5);
+        retentionDays = plugin.getConfig().getInt("logging.archive-retention-days", 30);
+        compressionThreads = plugin.getConfig().getInt("logging.compression.threads", 0);
+        int level = plugin.getConfig().getInt("logging.compression.level", 6);
+        compressionLevel = level >= 1 && level <= 9 ? level : 6;
+
+        // Rolled segments are gzipped in the background, away from the writer thread
+        segmentCompressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AdminSuiteChat-LogCompressor");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        // Archives are created only on server shutdown
+        // text, json (JSON Lines) or binary - files of other formats stay readable by log search
+        logFormat = LogFormat.fromConfig(plugin.getConfig().getString("logging.format", "text"));
+
+        // How often written entries are forced to disk
+        LogDurability durability;
+        try {
+            durability = LogDurability.parse(plugin.getConfig().getString("logging.durability", "interval:1000"));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning(e.getMessage() + " - using interval:1000");
+            durability = LogDurability.parse("interval:1000");
+        }
+
+        // Bounded queue between chat threads and the writer, overflow handled by policy
+        int queueCapacity = plugin.getConfig().getInt("logging.queue.capacity", 8192);
+        LogWriter.OverflowPolicy overflowPolicy =
+                LogWriter.OverflowPolicy.fromConfig(plugin.getConfig().getString("logging.queue.overflow", "block"));
+
+        // Start dedicated writer thread
+        writer = new LogWriter(plugin, logDirectory, maxLogBytes, logFormat, durability,
+                queueCapacity, overflowPolicy, this::onSegmentRolled);
+        writer.start();
+
+        plugin.debugMessage("LogManager initialized - Directory: " + logDirectory.toString()
+                + ", format: " + logFormat + ", durability: " + durability);
+
+        // Archives are created on server shutdown (or after startup for sealed sessions)
         // During server runtime, logs are written to logs/ folder
         
-        // Clean old archives based on max-archives limit if they exist
-        cleanArchivesByCount();
+        // Archive housekeeping runs on the compressor thread, a missing index is rebuilt there
+        archiveIndex = new ArchiveIndex(plugin, archiveDirectory);
+        segmentCompressor.execute(() -> {
+            // Load archive index (rebuilt from the archives if missing)
+            archiveIndex.load();
+
+            // Clean old archives based on max-archives limit if they exist
+            cleanArchivesByCount();
+
+            // Compress sessions sealed on previous shutdowns
+            compressOldLogsOnStartup();
+        });
     }
 
     /**
      * Log message to file
      */
-    public void logToFile(String channelId, String playerName, String message) {
+    public void logToFile(String channelId, UUID playerId, String playerName, String message) {
         if (!enabled) return;
 
         // Get channel from ChannelManager
@@ -68,66 +154,147 @@ public class LogManager {
 
         // Log to channel-specific file if enabled
         if (channel.isLogToFile()) {
-            writeToFile(channel.getLogFilename(), channelId, playerName, message);
+            writeToFile(channel.getLogFilename(), channelId, playerId, playerName, message);
         }
     }
 
     /**
      * Log HelpMe request to file
      */
-    public void logHelpMe(String helpmeId, String playerName, String message) {
+    public void logHelpMe(String helpmeId, UUID playerId, String playerName, String message) {
         if (!enabled) return;
 
         // Check if logging is enabled for this helpme channel
-        boolean logRequests = plugin.getConfig().getBoolean("helpme." + helpmeId + ".log-requests", false);
-        if (!logRequests) return;
+        if (!plugin.getSettings().getHelpMe(helpmeId).isLogRequests()) return;
 
         // Write to helpme1.log (or helpme2.log, etc.)
-        writeToFile(helpmeId + ".log", helpmeId.toUpperCase(), playerName, message);
+        writeToFile(helpmeId + ".log", helpmeId.toUpperCase(), playerId, playerName, message);
     }
 
     /**
      * Write to specific log file (async, non-blocking)
-     * Runtime rotation disabled - logs only rotated on server shutdown
+     * Entries are queued and written in batches by the writer thread
      */
-    private void writeToFile(String filename, String channel, String playerName, String message) {
-        // Run async to avoid blocking main thread
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+    private void writeToFile(String filename, String channel, UUID playerId, String playerName, String message) {
+        LogWriter currentWriter = writer;
+        if (currentWriter == null) return;
+
+        currentWriter.enqueue(new LogWriter.LogEntry(logFormat.fileNameFor(filename), channel.toUpperCase(),
+                playerId, playerName, message, System.currentTimeMillis()));
+    }
+
+    /**
+     * Flush queued entries and stop the writer thread
+     */
+    public void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+
+        // Segments not compressed yet stay as .log and are archived with the rest
+        if (segmentCompressor != null) {
+            segmentCompressor.shutdownNow();
             try {
-                Path logFile = logDirectory.resolve(filename);
-                
-                // Format log entry: [timestamp] [CHANNEL] player: message
-                String timestamp = dateFormat.format(new Date());
-                String logEntry = String.format("[%s] [%s] %s: %s%n", 
-                        timestamp, channel.toUpperCase(), playerName, message);
-                
-                // Use BufferedWriter for better performance
-                try (BufferedWriter writer = Files.newBufferedWriter(logFile, 
-                        StandardOpenOption.CREATE, 
-                        StandardOpenOption.APPEND)) {
-                    writer.write(logEntry);
+                segmentCompressor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            segmentCompressor = null;
+        }
+    }
+
+    /**
+     * Hand rolled segment to background compression (runs on the writer thread)
+     */
+    private void onSegmentRolled(Path segment) {
+        plugin.getConsoleSink().submit("logging", "&7Log file reached size limit, rotated to: " + segment.getFileName());
+
+        if (!archiveCompression) {
+            return;
+        }
+
+        ExecutorService compressor = segmentCompressor;
+        if (compressor != null && !compressor.isShutdown()) {
+            compressor.execute(() -> compressSegment(segment));
+        }
+    }
+
+    /**
+     * Gzip single rolled segment to segment.log.gz and delete the original
+     */
+    private void compressSegment(Path segment) {
+        Path target = segment.resolveSibling(segment.getFileName() + ".gz");
+        Path temp = segment.resolveSibling(segment.getFileName() + ".gz.tmp");
+
+        // Member offsets let log search seek into the segment without inflating all of it
+        StringBuilder members = new StringBuilder();
+
+        try {
+            try (InputStream in = Files.newInputStream(segment);
+                 ParallelGzipOutputStream out = openGzipStream(Files.newOutputStream(temp))) {
+                out.setMemberListener((uncompressed, compressed) ->
+                        members.append("M ").append(uncompressed).append(' ').append(compressed).append('\n'));
+                byte[] buffer = new byte[ARCHIVE_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Compression interrupted");
+                    }
+                    out.write(buffer, 0, read);
                 }
-                
-                plugin.debugMessage("Logged to file: " + filename);
-                
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to write to log file " + filename + ": " + e.getMessage());
             }
-        });
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(segment);
+            Files.writeString(LogWriter.indexFileOf(segment), members, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            plugin.getDebugTrace().trace(null, null, "Compressed rotated segment: {}", target.getFileName());
+
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            if (!(e instanceof InterruptedIOException)) {
+                plugin.getLogger().warning("Failed to compress log segment " + segment.getFileName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Active logs, rotated segments and their compressed form all belong to the next archive
+     */
+    private static boolean isLogFile(Path path) {
+        return LogFormat.isLogFile(path.getFileName().toString());
+    }
+
+    /**
+     * Search index sidecar of a log file (staff.log.idx)
+     */
+    private static boolean isIndexFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".idx") && LogFormat.isLogFile(name.substring(0, name.length() - 4));
     }
 
     /**
      * Rotate logs and compress them - all logs into one archive with rotation
+     * With shutdown-mode "seal" logs are only sealed, compression runs after next startup
      */
     public void rotateAndCompress() {
         if (!enabled) return;
         if (!plugin.getConfig().getBoolean("logging.rotation-enabled", true)) return;
 
+        if ("seal".equalsIgnoreCase(plugin.getConfig().getString("logging.shutdown-mode", "compress"))) {
+            sealLogs();
+            return;
+        }
+
         try {
-            // Get all .log files
+            // Get all log files
             java.util.List<Path> logFiles = Files.walk(logDirectory, 1)
                     .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".log"))
+                    .filter(LogManager::isLogFile)
                     .toList();
             
             if (logFiles.isEmpty()) {
@@ -137,19 +304,8 @@ public class LogManager {
 
             plugin.consoleMessage("&eRotating and compressing log files...");
 
-            // Get next archive number with rotation
-            int nextNumber = getNextArchiveNumberWithRotation();
-            String archiveName = "logs" + nextNumber + ".tar.gz";
-            Path archivePath = archiveDirectory.resolve(archiveName);
-
-            // Delete old archive if it exists (rotation overwrites)
-            if (Files.exists(archivePath)) {
-                Files.delete(archivePath);
-                plugin.debugMessage("Overwriting old archive: " + archiveName);
-            }
-
             // Create tar.gz archive with ALL log files
-            compressDirectory(logDirectory, archivePath);
+            String archiveName = createArchive(logDirectory);
 
             // Clear old logs
             clearDirectory(logDirectory);
@@ -163,139 +319,151 @@ public class LogManager {
     }
 
     /**
-     * Get next archive number with rotation (1-5, then back to 1)
-     * Example: 1, 2, 3, 4, 5, 1, 2, 3, 4, 5, 1...
+     * Compress directory into the next rotating archive and record it in the archive index
+     * Numbers rotate 1-5, then back to 1: 1, 2, 3, 4, 5, 1, 2, 3, 4, 5, 1...
      */
-    private int getNextArchiveNumberWithRotation() throws IOException {
-        int maxArchives = plugin.getConfig().getInt("logging.max-archives", 5);
-        int maxNumber = 0;
-        
-        if (Files.exists(archiveDirectory)) {
-            // Find highest existing archive number
-            for (Path path : Files.walk(archiveDirectory, 1)
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.getFileName().toString().matches("logs\\d+\\.tar\\.gz"))
-                    .toList()) {
-                
-                String filename = path.getFileName().toString();
-                String numberStr = filename.substring(4, filename.length() - 7);
-                
-                try {
-                    int number = Integer.parseInt(numberStr);
-                    if (number > maxNumber) {
-                        maxNumber = number;
-                    }
-                } catch (NumberFormatException ignored) {
-                }
-            }
-        }
+    private String createArchive(Path sourceDir) throws IOException {
+        int nextNumber = archiveIndex.nextNumber(maxArchives);
+        String archiveName = "logs" + nextNumber + ".tar.gz";
+        Path archivePath = archiveDirectory.resolve(archiveName);
 
-        // Increment and rotate (1-5, then back to 1)
-        int nextNumber = maxNumber + 1;
-        
-        // If we exceed max, rotate back to 1
-        if (nextNumber > maxArchives) {
-            nextNumber = 1;
+        plugin.getDebugTrace().trace(null, null, "Next archive number: {} (max: {})", nextNumber, maxArchives);
+
+        // Old archive stays until the new one is complete, then the move and put replace it (rotation overwrites)
+        boolean overwritten = archiveIndex.get(nextNumber) != null || Files.exists(archivePath);
+
+        ArchiveIndex.ArchiveEntry entry = compressDirectory(sourceDir, archivePath, nextNumber);
+        if (entry != null) {
+            archiveIndex.put(entry);
+            if (overwritten) {
+                plugin.getDebugTrace().trace(null, null, "Overwrote old archive: {}", archiveName);
+            }
         }
-        
-        plugin.debugMessage("Next archive number: " + nextNumber + " (max: " + maxArchives + ")");
-        return nextNumber;
+        return archiveName;
     }
 
     /**
      * Compress directory to tar.gz using proper TAR format
+     * Files are streamed in fixed-size chunks, memory use is constant regardless of log size
+     * Archive and sidecar are written as .tmp and moved into place when complete, an existing archive is replaced
+     *
+     * @return index entry of the new archive, null if there was nothing to compress
      */
-    private void compressDirectory(Path sourceDir, Path targetFile) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(targetFile.toFile());
-             GZIPOutputStream gzos = new GZIPOutputStream(fos);
-             BufferedOutputStream bos = new BufferedOutputStream(gzos)) {
+    private ArchiveIndex.ArchiveEntry compressDirectory(Path sourceDir, Path targetFile, int number) throws IOException {
+        // Get all log files
+        List<Path> logFiles = Files.walk(sourceDir, 1)
+                .filter(Files::isRegularFile)
+                .filter(LogManager::isLogFile)
+                .sorted()
+                .toList();
 
-            // Get all .log files
-            java.util.List<Path> logFiles = Files.walk(sourceDir, 1)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".log"))
-                    .sorted()
-                    .toList();
+        if (logFiles.isEmpty()) {
+            plugin.getDebugTrace().trace(null, null, "No log files to compress");
+            return null;
+        }
 
-            if (logFiles.isEmpty()) {
-                plugin.debugMessage("No log files to compress");
-                return;
-            }
+        long startTime = System.nanoTime();
+        long contentBytes;
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        Set<String> channels = new TreeSet<>();
+        CRC32 checksum = new CRC32();
 
-            // Write TAR entries
-            for (Path file : logFiles) {
-                String fileName = file.getFileName().toString();
-                byte[] fileContent = Files.readAllBytes(file);
-                
-                // Create TAR header (512 bytes)
-                byte[] header = new byte[512];
-                
-                // File name (offset 0, length 100)
-                byte[] nameBytes = fileName.getBytes("UTF-8");
-                System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
-                
-                // File mode (offset 100, length 8) - "0000644\0"
-                String mode = "0000644\0";
-                System.arraycopy(mode.getBytes("UTF-8"), 0, header, 100, 8);
-                
-                // Owner ID (offset 108, length 8) - "0000000\0"
-                String uid = "0000000\0";
-                System.arraycopy(uid.getBytes("UTF-8"), 0, header, 108, 8);
-                
-                // Group ID (offset 116, length 8) - "0000000\0"
-                String gid = "0000000\0";
-                System.arraycopy(gid.getBytes("UTF-8"), 0, header, 116, 8);
-                
-                // File size in octal (offset 124, length 12)
-                String size = String.format("%011o\0", fileContent.length);
-                System.arraycopy(size.getBytes("UTF-8"), 0, header, 124, 12);
-                
-                // Modification time in octal (offset 136, length 12)
-                long mtime = Files.getLastModifiedTime(file).toMillis() / 1000;
-                String mtimeStr = String.format("%011o\0", mtime);
-                System.arraycopy(mtimeStr.getBytes("UTF-8"), 0, header, 136, 12);
-                
-                // Checksum placeholder (offset 148, length 8) - fill with spaces first
-                for (int i = 148; i < 156; i++) {
-                    header[i] = ' ';
-                }
-                
-                // Type flag (offset 156, length 1) - '0' for regular file
-                header[156] = '0';
-                
-                // Calculate checksum
-                int checksum = 0;
-                for (byte b : header) {
-                    checksum += (b & 0xFF);
-                }
-                
-                // Write checksum (offset 148, length 8)
-                String checksumStr = String.format("%06o\0 ", checksum);
-                System.arraycopy(checksumStr.getBytes("UTF-8"), 0, header, 148, 8);
-                
-                // Write header
-                bos.write(header);
-                
-                // Write file content
-                bos.write(fileContent);
-                
-                // Pad to 512-byte boundary
-                int remainder = fileContent.length % 512;
-                if (remainder != 0) {
-                    byte[] padding = new byte[512 - remainder];
-                    bos.write(padding);
+        // Archive sidecar (logsN.tar.idx): gzip member table, then every file's offset and its own index
+        StringBuilder members = new StringBuilder();
+        StringBuilder files = new StringBuilder();
+
+        Path tempFile = targetFile.resolveSibling(targetFile.getFileName() + ".tmp");
+        Path indexFile = LogWriter.indexFileOf(targetFile);
+        Path tempIndexFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        long archiveBytes;
+
+        try {
+            // File <- checksum <- buffer <- gzip <- tar, so gzip output is written to disk in large chunks
+            ParallelGzipOutputStream gzip = openGzipStream(
+                    new CheckedOutputStream(Files.newOutputStream(tempFile), checksum));
+            gzip.setMemberListener((uncompressed, compressed) ->
+                    members.append("M ").append(uncompressed).append(' ').append(compressed).append('\n'));
+
+            try (TarArchiveWriter tar = new TarArchiveWriter(gzip)) {
+                for (Path file : logFiles) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Compression interrupted");
+                    }
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    from = Math.min(from, Math.min(attributes.creationTime().toMillis(), attributes.lastModifiedTime().toMillis()));
+                    to = Math.max(to, attributes.lastModifiedTime().toMillis());
+                    channels.add(LogWriter.logNameOf(file.getFileName().toString()));
+
+                    long archivedBefore = tar.getContentBytes();
+                    long dataOffset = tar.putFile(file);
+                    files.append("F ").append(file.getFileName()).append(' ').append(dataOffset).append(' ')
+                            .append(tar.getContentBytes() - archivedBefore).append('\n');
+
+                    Path fileIndex = LogWriter.indexFileOf(file);
+                    if (Files.exists(fileIndex)) {
+                        files.append(Files.readString(fileIndex, StandardCharsets.UTF_8));
+                    }
+                    plugin.getDebugTrace().trace(null, null, "Added to archive: {}", file.getFileName());
                 }
-                
-                plugin.debugMessage("Added to archive: " + fileName);
+
+                tar.finish();
+                contentBytes = tar.getContentBytes();
             }
-            
-            // Write two empty 512-byte blocks to mark end of archive
-            byte[] endMarker = new byte[1024];
-            bos.write(endMarker);
-            
+
+            Files.writeString(tempIndexFile, members.append(files), StandardCharsets.UTF_8);
+            archiveBytes = Files.size(tempFile);
+
+            // Both files are complete, the moves only swap them in
+            moveReplacing(tempIndexFile, indexFile);
+            moveReplacing(tempFile, targetFile);
+
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tempFile);
+                Files.deleteIfExists(tempIndexFile);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+
+        reportThroughput(logFiles.size(), contentBytes, archiveBytes, System.nanoTime() - startTime);
+
+        return new ArchiveIndex.ArchiveEntry(number, targetFile.getFileName().toString(),
+                System.currentTimeMillis(), from, to, channels, contentBytes, archiveBytes,
+                String.format("%08x", checksum.getValue()));
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
+    /**
+     * Open gzip stream that deflates blocks on compression.threads cores
+     * Output is a series of standard gzip members, readable by gzip and tar xzf
+     */
+    private ParallelGzipOutputStream openGzipStream(OutputStream target) {
+        return new ParallelGzipOutputStream(
+                new BufferedOutputStream(target, ARCHIVE_BUFFER_SIZE), compressionThreads, compressionLevel);
+    }
+
+    /**
+     * Print archive size and bytes/sec throughput
+     */
+    private void reportThroughput(int fileCount, long contentBytes, long archiveBytes, long elapsedNanos) {
+        double elapsedSeconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        double megabytes = contentBytes / (1024.0 * 1024.0);
+
+        plugin.getConsoleSink().submit("logging", String.format(
+                "&7Archived %d file(s), %.2f MB -> %.2f MB in %d ms (%.2f MB/s)",
+                fileCount, megabytes, archiveBytes / (1024.0 * 1024.0),
+                elapsedNanos / 1_000_000, megabytes / elapsedSeconds));
+    }
+
     /**
      * Clear directory contents
      */
@@ -303,7 +471,7 @@ public class LogManager {
         // Only delete .log files in the logs directory, not in subdirectories (archives)
         Files.walk(directory, 1)  // maxDepth 1 = only current directory, not subdirectories
                 .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".log"))  // Only .log files
+                .filter(path -> isLogFile(path) || isIndexFile(path))  // Only log files, rotated segments and their index
                 .forEach(file -> {
                     try {
                         Files.delete(file);
@@ -315,46 +483,33 @@ public class LogManager {
     }
 
     /**
-     * Clean old archives based on retention days
+     * Clean old archives based on retention days (runs on an async task)
      */
     public void cleanOldArchives() {
-        int retentionDays = plugin.getConfig().getInt("logging.archive-retention-days", 30);
+        int retentionDays = this.retentionDays;
         if (retentionDays <= 0) return; // Keep forever
 
         long cutoffTime = System.currentTimeMillis() - (retentionDays * 24L * 60 * 60 * 1000);
         int deletedCount = 0;
 
-        try {
-            java.util.List<Path> toDelete = Files.walk(archiveDirectory, 1)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".tar.gz"))
-                    .filter(path -> {
-                        try {
-                            long fileTime = Files.getLastModifiedTime(path).toMillis();
-                            return fileTime < cutoffTime;
-                        } catch (IOException e) {
-                            return false;
-                        }
-                    })
-                    .toList();
-
-            for (Path path : toDelete) {
-                try {
-                    long fileTime = Files.getLastModifiedTime(path).toMillis();
-                    long ageInDays = (System.currentTimeMillis() - fileTime) / (24L * 60 * 60 * 1000);
-                    Files.delete(path);
-                    plugin.debugMessage("Deleted old archive: " + path.getFileName() + " (age: " + ageInDays + " days)");
-                    deletedCount++;
-                } catch (IOException e) {
-                    plugin.getLogger().warning("Failed to delete archive: " + e.getMessage());
-                }
+        // Index is ordered oldest first, stop at the first archive inside retention
+        for (ArchiveIndex.ArchiveEntry entry : archiveIndex.getEntriesByAge()) {
+            if (entry.getCreated() >= cutoffTime) {
+                break;
             }
-            
-            if (deletedCount > 0) {
-                plugin.consoleMessage("&a✓ Cleaned " + deletedCount + " old archive(s) (older than " + retentionDays + " days)");
+
+            try {
+                long ageInDays = (System.currentTimeMillis() - entry.getCreated()) / (24L * 60 * 60 * 1000);
+                archiveIndex.delete(entry.getNumber());
+                plugin.getDebugTrace().trace(null, null, "Deleted old archive: {} (age: {} days)", entry.getFileName(), ageInDays);
+                deletedCount++;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to delete archive: " + e.getMessage());
             }
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to clean old archives: " + e.getMessage());
+        }
+
+        if (deletedCount > 0) {
+            plugin.getConsoleSink().submit("logging", "&a✓ Cleaned " + deletedCount + " old archive(s) (older than " + retentionDays + " days)");
         }
     }
 
@@ -365,7 +520,11 @@ public class LogManager {
         if (!enabled) return;
 
         try {
-            clearDirectory(logDirectory);
+            if (writer != null) {
+                writer.runWithFilesClosed(() -> clearDirectory(logDirectory));
+            } else {
+                clearDirectory(logDirectory);
+            }
             plugin.consoleMessage("&a✓ Log files cleared!");
         } catch (IOException e) {
             plugin.getLogger().severe("Failed to clear logs: " + e.getMessage());
@@ -373,62 +532,173 @@ public class LogManager {
     }
 
     /**
-     * Compress old log files on server startup
+     * Seal active logs for deferred compression
+     * Every log file is renamed into a session folder and the session is recorded in the manifest
      */
-    private void compressOldLogsOnStartup() {
+    private void sealLogs() {
         try {
-            // Check if there are any .log files in logs directory
-            boolean hasLogFiles = Files.walk(logDirectory, 1)
+            List<Path> logFiles = Files.walk(logDirectory, 1)
                     .filter(Files::isRegularFile)
-                    .anyMatch(path -> path.toString().endsWith(".log"));
+                    .filter(LogManager::isLogFile)
+                    .toList();
 
-            if (!hasLogFiles) {
-                plugin.debugMessage("No log files to compress on startup");
+            if (logFiles.isEmpty()) {
+                plugin.debugMessage("No log files to seal");
                 return;
             }
 
-            plugin.consoleMessage("&eCompressing old log files from previous session...");
+            List<Path> indexFiles = Files.walk(logDirectory, 1)
+                    .filter(Files::isRegularFile)
+                    .filter(LogManager::isIndexFile)
+                    .toList();
 
-            // Get next archive number with rotation
-            int nextNumber = getNextArchiveNumberWithRotation();
-            String archiveName = "logs" + nextNumber + ".tar.gz";
-            Path archivePath = archiveDirectory.resolve(archiveName);
-            
-            // Delete old archive if it exists (rotation overwrites)
-            if (Files.exists(archivePath)) {
-                Files.delete(archivePath);
-                plugin.debugMessage("Overwriting old archive: " + archiveName);
+            // Session folder named after shutdown time
+            String session = SESSION_FORMAT.format(Instant.now());
+            Path sessionDir = sealedDirectory.resolve(session);
+            for (int i = 1; Files.exists(sessionDir); i++) {
+                sessionDir = sealedDirectory.resolve(session + "-" + i);
             }
+            Files.createDirectories(sessionDir);
 
-            // Create tar.gz archive
-            compressDirectory(logDirectory, archivePath);
+            // Rename only, same file system - no file content is touched
+            List<Path> sealedFiles = new ArrayList<>(logFiles);
+            sealedFiles.addAll(indexFiles);
+            for (Path file : sealedFiles) {
+                Path target = sessionDir.resolve(file.getFileName());
+                try {
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file, target);
+                }
+            }
 
-            // Clear old logs (but not the archives folder)
-            clearOldLogs();
+            // Manifest line: session, sealed at (epoch millis), file count
+            String entry = sessionDir.getFileName() + "\t" + System.currentTimeMillis() + "\t" + logFiles.size() + System.lineSeparator();
+            Files.writeString(sealedDirectory.resolve(SEALED_MANIFEST), entry, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
 
-            plugin.consoleMessage("&a✓ Compressed old logs to: " + archiveName);
+            plugin.consoleMessage("&a✓ Sealed " + logFiles.size() + " log file(s), compression deferred to next startup");
 
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to seal logs: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compress old log files on server startup
+     * Runs on the compressor thread and archives every session sealed on a previous shutdown
+     */
+    private void compressOldLogsOnStartup() {
+        if (!deferredCompressionRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<String> sessions = readSealedSessions();
+            if (sessions.isEmpty()) {
+                plugin.getDebugTrace().trace(null, null, "No sealed log sessions to compress on startup");
+                return;
+            }
+
+            plugin.getConsoleSink().submit("logging", "&eCompressing old log files from previous session...");
+
+            for (String session : sessions) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                Path sessionDir = sealedDirectory.resolve(session);
+                if (Files.isDirectory(sessionDir)) {
+                    // Create tar.gz archive
+                    String archiveName = createArchive(sessionDir);
+
+                    // Remove sealed session folder
+                    clearOldLogs(sessionDir);
+
+                    plugin.getConsoleSink().submit("logging", "&a✓ Compressed old logs to: " + archiveName);
+                }
+
+                removeSealedSession(session);
+            }
+
+        } catch (InterruptedIOException e) {
+            // Reload or shutdown, the session stays sealed and is compressed next time
+            plugin.getDebugTrace().trace(null, null, "Startup compression interrupted");
         } catch (IOException e) {
             plugin.getLogger().warning("Failed to compress old logs on startup: " + e.getMessage());
+        } finally {
+            deferredCompressionRunning.set(false);
+        }
+    }
+
+    /**
+     * Sealed sessions from manifest, plus session folders missing from it (e.g. crash while sealing)
+     */
+    private List<String> readSealedSessions() throws IOException {
+        Set<String> sessions = new LinkedHashSet<>();
+
+        Path manifest = sealedDirectory.resolve(SEALED_MANIFEST);
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                String session = line.split("\t", 2)[0].trim();
+                if (!session.isEmpty()) {
+                    sessions.add(session);
+                }
+            }
+        }
+
+        try (var stream = Files.list(sealedDirectory)) {
+            stream.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .sorted()
+                    .forEach(sessions::add);
         }
+
+        return new ArrayList<>(sessions);
     }
 
+    /**
+     * Drop compressed session from manifest
+     */
+    private void removeSealedSession(String session) throws IOException {
+        Path manifest = sealedDirectory.resolve(SEALED_MANIFEST);
+        if (!Files.exists(manifest)) return;
+
+        List<String> remaining = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (!line.split("\t", 2)[0].trim().equals(session) && !line.isBlank()) {
+                remaining.add(line);
+            }
+        }
+
+        if (remaining.isEmpty()) {
+            Files.delete(manifest);
+        } else {
+            Files.write(manifest, remaining, StandardCharsets.UTF_8);
+        }
+    }
 
     /**
-     * Clear old log files (but keep archives folder)
+     * Clear old log files and remove their session folder
      */
-    private void clearOldLogs() throws IOException {
-        Files.walk(logDirectory, 1)
+    private void clearOldLogs(Path directory) throws IOException {
+        Files.walk(directory, 1)
                 .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".log"))
+                .filter(path -> isLogFile(path) || isIndexFile(path))
                 .forEach(path -> {
                     try {
                         Files.delete(path);
-                        plugin.debugMessage("Deleted old log: " + path.getFileName());
+                        plugin.getDebugTrace().trace(null, null, "Deleted old log: {}", path.getFileName());
                     } catch (IOException e) {
                         plugin.getLogger().warning("Failed to delete log file: " + e.getMessage());
                     }
                 });
+
+        try {
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException e) {
+            plugin.getDebugTrace().trace(null, null, "Sealed folder not empty, keeping: {}", directory.getFileName());
+        }
     }
 
     /**
@@ -436,41 +706,61 @@ public class LogManager {
      * With rotation, this usually won't delete anything since we overwrite old archives
      */
     private void cleanArchivesByCount() {
-        int maxArchives = plugin.getConfig().getInt("logging.max-archives", 5);
         if (maxArchives <= 0) return; // Keep all
 
-        try {
-            // Get all archive files sorted by number (oldest first)
-            java.util.List<Path> archives = Files.walk(archiveDirectory, 1)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().matches("logs\\d+\\.tar\\.gz"))
-                    .sorted((p1, p2) -> {
-                        String n1 = p1.getFileName().toString().substring(4, p1.getFileName().toString().length() - 7);
-                        String n2 = p2.getFileName().toString().substring(4, p2.getFileName().toString().length() - 7);
-                        return Integer.compare(Integer.parseInt(n1), Integer.parseInt(n2));
-                    })
-                    .toList();
+        // With rotation, we should only have max archives
+        // But if someone changes max-archives to smaller number, clean up extras (oldest first)
+        List<ArchiveIndex.ArchiveEntry> archives = archiveIndex.getEntriesByAge();
+        int toDelete = archives.size() - maxArchives;
+        if (toDelete <= 0) return;
 
-            // With rotation, we should only have max archives
-            // But if someone changes max-archives to smaller number, clean up extras
-            int toDelete = archives.size() - maxArchives;
-            if (toDelete > 0) {
-                plugin.consoleMessage("&eCleaning old archives (keeping last " + maxArchives + ")...");
-                
-                for (int i = 0; i < toDelete; i++) {
-                    Path archive = archives.get(i);
-                    Files.delete(archive);
-                    plugin.consoleMessage("&7Deleted old archive: " + archive.getFileName());
-                }
-                
-                plugin.consoleMessage("&a✓ Cleaned " + toDelete + " old archive(s)");
+        plugin.getConsoleSink().submit("logging", "&eCleaning old archives (keeping last " + maxArchives + ")...");
+
+        try {
+            for (int i = 0; i < toDelete; i++) {
+                ArchiveIndex.ArchiveEntry archive = archives.get(i);
+                archiveIndex.delete(archive.getNumber());
+                plugin.getConsoleSink().submit("logging", "&7Deleted old archive: " + archive.getFileName());
             }
 
+            plugin.getConsoleSink().submit("logging", "&a✓ Cleaned " + toDelete + " old archive(s)");
+
         } catch (IOException e) {
             plugin.getLogger().warning("Failed to clean archives by count: " + e.getMessage());
         }
     }
 
+    /**
+     * Active writer, null while logging is disabled
+     */
+    public LogWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Log entries not yet safe on disk (queued or written without fsync)
+     */
+    public long getEntriesAtRisk() {
+        LogWriter currentWriter = writer;
+        return currentWriter != null ? currentWriter.getEntriesAtRisk() : 0;
+    }
+
+    public Path getLogDirectory() {
+        return logDirectory;
+    }
+
+    public Path getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    public Path getSealedDirectory() {
+        return sealedDirectory;
+    }
+
+    public ArchiveIndex getArchiveIndex() {
+        return archiveIndex;
+    }
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -0,0 +1,886 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.command.CommandSender;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.ChatChannel;
+import sk.yamiru.adminsuitechat.utils.TarArchiveReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Search over active logs, sealed sessions and archives (/asc logs search)
+ * Index sidecars (.idx) written next to every log decide which blocks are read at all:
+ * "T millis offset" starts a block, "P name" lists its players, "M uncompressed compressed" maps gzip members
+ */
+public class LogSearch {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_RESULTS = 500;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long TIME_SLACK_MS = 1000;
+    // Results are kept for paging this long after a search started
+    private static final long SESSION_TTL_MS = 15 * 60 * 1000L;
+
+    private static final Pattern PLAYER_NAME = Pattern.compile("[A-Za-z0-9_]{3,16}");
+    private static final Pattern RELATIVE_TIME = Pattern.compile("(\\d+)([mhdw])");
+
+    private final AdminSuiteChat plugin;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public LogSearch(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start search in the background, first page is sent as soon as it is filled
+     * Arguments: <player|text> [channel] [from] [to]
+     *
+     * @return false when arguments are invalid
+     */
+    public boolean search(CommandSender sender, String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+
+        Long from = null;
+        Long to = null;
+        String channel = null;
+        for (int i = 1; i < args.length; i++) {
+            Long time = parseTime(args[i], from != null);
+            if (time != null && to == null) {
+                if (from == null) {
+                    from = time;
+                } else {
+                    to = time;
+                }
+            } else if (time == null && channel == null && from == null) {
+                channel = args[i];
+            } else {
+                return false;
+            }
+        }
+
+        LogManager logManager = plugin.getLogManager();
+        if (logManager == null || !logManager.isEnabled()) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&cLogging is disabled."));
+            return true;
+        }
+
+        Query query = new Query(args[0], resolveChannel(channel),
+                from != null ? from : Long.MIN_VALUE, to != null ? to : Long.MAX_VALUE);
+
+        // New search replaces the previous one of the same sender
+        Session session = new Session(query);
+        String senderName = sender.getName();
+        Session previous = sessions.put(senderName, session);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        // Only removes this session, a newer search of the same sender stays
+        plugin.getExpiryWheel().schedule(SESSION_TTL_MS, () -> {
+            if (sessions.remove(senderName, session)) {
+                session.cancelled = true;
+            }
+        });
+
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Searching logs for &f" + query.term + "&7..."));
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> runSearch(sender, logManager, session));
+        return true;
+    }
+
+    /**
+     * Show page of the sender's last search
+     */
+    public void showPage(CommandSender sender, int page) {
+        Session session = sessions.get(sender.getName());
+        if (session == null) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&cNo log search results. Use &e/asc logs search&c first."));
+            return;
+        }
+
+        int pages = Math.max(1, (session.hits.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        if (page > pages && !session.done) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&7Search is still running, page &f" + page + "&7 is not available yet."));
+            return;
+        }
+
+        sendPage(sender, session, Math.max(1, Math.min(page, pages)));
+    }
+
+    private void sendPage(CommandSender sender, Session session, int page) {
+        List<String> hits;
+        synchronized (session.hits) {
+            hits = new ArrayList<>(session.hits);
+        }
+
+        int pages = Math.max(1, (hits.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        sender.sendMessage(plugin.getMessageUtils().colorize("&6&l▬▬▬▬▬ Log Search ▬▬▬▬▬"));
+        sender.sendMessage(plugin.getMessageUtils().colorize("&7Results for &f" + session.query.term
+                + " &7- page &f" + page + "&7/&f" + pages + (session.done ? "" : "&7 (searching...)")));
+
+        int start = (page - 1) * PAGE_SIZE;
+        for (int i = start; i < Math.min(start + PAGE_SIZE, hits.size()); i++) {
+            sender.sendMessage(hits.get(i));
+        }
+
+        if (page < pages || !session.done) {
+            sender.sendMessage(plugin.getMessageUtils().colorize("&7Use &e/asc logs page " + (page + 1) + " &7for more"));
+        }
+    }
+
+    /**
+     * Channel argument is a channel id, files are matched by that channel's log name
+     */
+    private String resolveChannel(String channel) {
+        if (channel == null) return null;
+
+        ChatChannel chatChannel = plugin.getChannelManager().getChannel(channel.toLowerCase());
+        if (chatChannel != null) {
+            return LogWriter.logNameOf(chatChannel.getLogFilename());
+        }
+        return channel.toLowerCase();
+    }
+
+    /**
+     * Relative time (30m, 12h, 7d, 2w) or date (yyyy-MM-dd, "to" dates include the whole day)
+     */
+    static Long parseTime(String value, boolean endOfRange) {
+        Matcher matcher = RELATIVE_TIME.matcher(value.toLowerCase());
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            long unit = switch (matcher.group(2)) {
+                case "m" -> 60_000L;
+                case "h" -> 3_600_000L;
+                case "d" -> 86_400_000L;
+                default -> 604_800_000L;
+            };
+            return System.currentTimeMillis() - amount * unit;
+        }
+
+        try {
+            LocalDate date = LocalDate.parse(value);
+            if (endOfRange) {
+                date = date.plusDays(1);
+            }
+            long millis = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return endOfRange ? millis - 1 : millis;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ========== SEARCH ==========
+
+    private void runSearch(CommandSender sender, LogManager logManager, Session session) {
+        long startTime = System.nanoTime();
+        Search search = new Search(session);
+
+        try {
+            List<Target> targets = collectTargets(logManager, session.query);
+
+            // Player search only when the name is known to the index, otherwise match message text too
+            if (PLAYER_NAME.matcher(session.query.term).matches()) {
+                for (Target target : targets) {
+                    if (target.index != null && target.index.players.contains(search.termLower)) {
+                        search.playerMode = true;
+                        break;
+                    }
+                }
+            }
+
+            for (Target target : targets) {
+                if (search.isFinished()) break;
+
+                try {
+                    searchTarget(target, search, sender);
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Failed to search log " + target.label + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to search logs: " + e.getMessage());
+        }
+
+        session.done = true;
+        if (session.cancelled) return;
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (!search.firstPageSent) {
+                sendPage(sender, session, 1);
+            }
+            sender.sendMessage(plugin.getMessageUtils().colorize(String.format(
+                    "&7Found &f%d&7 result(s)%s in %d ms, read %d of %d block(s) (%.2f MB)",
+                    session.hits.size(), search.limitReached ? " &8(limit reached)&7" : "", elapsedMs,
+                    search.scannedBlocks, search.totalBlocks, search.bytesRead / (1024.0 * 1024.0))));
+        });
+    }
+
+    /**
+     * Log files newest first: active logs and sealed sessions, then archives
+     */
+    private List<Target> collectTargets(LogManager logManager, Query query) throws IOException {
+        List<Path> files = new ArrayList<>(listLogFiles(logManager.getLogDirectory()));
+        if (Files.isDirectory(logManager.getSealedDirectory())) {
+            try (Stream<Path> stream = Files.list(logManager.getSealedDirectory())) {
+                for (Path session : stream.filter(Files::isDirectory).toList()) {
+                    files.addAll(listLogFiles(session));
+                }
+            }
+        }
+
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.sort(Comparator.comparing((Path file) -> modified.get(file)).reversed());
+
+        List<Target> targets = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (query.logName != null && !LogWriter.logNameOf(name).equalsIgnoreCase(query.logName)) continue;
+            // Nothing in the file is newer than its last write
+            if (modified.get(file) + TIME_SLACK_MS < query.from) continue;
+
+            boolean gzip = name.endsWith(".gz");
+            long size = gzip ? Long.MAX_VALUE : Files.size(file);
+            FileIndex index = readIndex(LogWriter.indexFileOf(file), size);
+            targets.add(new Target(name, file, gzip ? Kind.GZIP : Kind.PLAIN, LogFormat.ofFile(name), index, null, 0, size));
+        }
+
+        List<ArchiveIndex.ArchiveEntry> archives = new ArrayList<>(logManager.getArchiveIndex().getEntriesByAge());
+        Collections.reverse(archives);
+        for (ArchiveIndex.ArchiveEntry entry : archives) {
+            if (entry.getTo() + TIME_SLACK_MS < query.from) continue;
+            if (query.logName != null && entry.getChannels().stream().noneMatch(query.logName::equalsIgnoreCase)) continue;
+
+            Path archive = logManager.getArchiveDirectory().resolve(entry.getFileName());
+            if (!Files.exists(archive)) continue;
+
+            Path sidecar = LogWriter.indexFileOf(archive);
+            if (!Files.exists(sidecar)) {
+                // Archive written before search indexes existed
+                targets.add(new Target(entry.getFileName(), archive, Kind.ARCHIVE_SCAN, null, null, null, 0, 0));
+                continue;
+            }
+
+            for (ArchiveFile archived : readArchiveIndex(sidecar)) {
+                if (!LogFormat.isLogFile(archived.name)) continue;
+                if (query.logName != null && !LogWriter.logNameOf(archived.name).equalsIgnoreCase(query.logName)) continue;
+
+                boolean gzip = archived.name.endsWith(".gz");
+                finishIndex(archived.index, gzip ? Long.MAX_VALUE : archived.size);
+                targets.add(new Target(entry.getFileName() + "/" + archived.name, archive,
+                        gzip ? Kind.ARCHIVE_GZIP : Kind.ARCHIVE_PLAIN, LogFormat.ofFile(archived.name),
+                        archived.index, archived.archiveIndex,
+                        archived.offset, archived.size));
+            }
+        }
+
+        return targets;
+    }
+
+    private static List<Path> listLogFiles(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(Files::isRegularFile)
+                    .filter(path -> LogFormat.isLogFile(path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Read only blocks whose time range and player set can match
+     */
+    private void searchTarget(Target target, Search search, CommandSender sender) throws IOException {
+        if (target.kind == Kind.ARCHIVE_SCAN) {
+            scanArchive(target, search, sender);
+            return;
+        }
+
+        // Adjacent matching blocks are read as one range
+        List<long[]> ranges = new ArrayList<>();
+        for (Block block : target.index.blocks) {
+            search.totalBlocks++;
+            if (!search.matches(block)) continue;
+
+            search.scannedBlocks++;
+            long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] == block.start) {
+                last[1] = block.end;
+            } else {
+                ranges.add(new long[]{block.start, block.end});
+            }
+        }
+
+        if (ranges.isEmpty()) return;
+
+        if (target.kind == Kind.PLAIN) {
+            scanMapped(target, ranges, search, sender);
+            return;
+        }
+
+        for (long[] range : ranges) {
+            if (search.isFinished()) return;
+
+            try (InputStream in = openAt(target, range[0])) {
+                long length = range[1] == Long.MAX_VALUE ? Long.MAX_VALUE : range[1] - range[0];
+                scanStream(new BoundedInputStream(in, length), target.format, search, sender);
+            }
+        }
+    }
+
+    /**
+     * Active and sealed logs are read through memory-mapped windows
+     */
+    private void scanMapped(Target target, List<long[]> ranges, Search search, CommandSender sender) throws IOException {
+        try (FileChannel channel = FileChannel.open(target.file, StandardOpenOption.READ)) {
+            // Content written after this point is not part of the search
+            long size = channel.size();
+
+            for (long[] range : ranges) {
+                long position = range[0];
+                long end = Math.min(range[1], size);
+
+                while (position < end && !search.isFinished()) {
+                    long length = Math.min(end - position, MAP_WINDOW_BYTES);
+                    boolean lastWindow = position + length >= end;
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                    LogFormat.LineParser parser = target.format.getLineParser();
+                    int consumed = parser == null
+                            ? scanRecords(buffer, search, sender)
+                            : scanBuffer(buffer, lastWindow, parser, search, sender);
+                    search.bytesRead += consumed;
+                    // A single line longer than the window is skipped
+                    position += consumed > 0 ? consumed : length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan complete lines in the buffer
+     *
+     * @return bytes consumed, a trailing partial line is left for the next window
+     */
+    private int scanBuffer(MappedByteBuffer buffer, boolean lastWindow, LogFormat.LineParser parser, Search search, CommandSender sender) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) != '\n') continue;
+
+            search.accept(parser.parse(decodeLine(buffer, lineStart, i, search)), this, sender);
+            lineStart = i + 1;
+            if (search.isFinished()) return lineStart;
+        }
+
+        if (lastWindow && lineStart < limit) {
+            search.accept(parser.parse(decodeLine(buffer, lineStart, limit, search)), this, sender);
+            return limit;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Scan complete length-prefixed records in the buffer
+     *
+     * @return bytes consumed, a trailing partial record is left for the next window
+     */
+    private int scanRecords(MappedByteBuffer buffer, Search search, CommandSender sender) {
+        int limit = buffer.limit();
+        int position = 0;
+
+        while (position + 4 <= limit && !search.isFinished()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > LogFormat.MAX_RECORD_BYTES) {
+                // Corrupt length, nothing after it can be framed
+                return limit;
+            }
+            if (position + 4 + length > limit) break;
+
+            byte[] record = search.recordBuffer(length);
+            buffer.get(position + 4, record, 0, length);
+            search.accept(LogFormat.decodeRecord(record, 0, length), this, sender);
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private static String decodeLine(MappedByteBuffer buffer, int start, int end, Search search) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int length = end - start;
+        if (search.lineBytes.length < length) {
+            search.lineBytes = new byte[Math.max(length, search.lineBytes.length * 2)];
+        }
+        buffer.get(start, search.lineBytes, 0, length);
+        return new String(search.lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void scanStream(InputStream in, LogFormat format, Search search, CommandSender sender) throws IOException {
+        LogFormat.LineParser parser = format.getLineParser();
+        if (parser == null) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in, STREAM_BUFFER_SIZE));
+            while (!search.isFinished()) {
+                int length;
+                try {
+                    length = data.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length <= 0 || length > LogFormat.MAX_RECORD_BYTES) return;
+
+                byte[] record = search.recordBuffer(length);
+                data.readFully(record, 0, length);
+                search.bytesRead += 4 + length;
+                search.accept(LogFormat.decodeRecord(record, 0, length), this, sender);
+            }
+            return;
+        }
+
+        // Bytes are counted as the reader pulls them, line lengths are chars and not bytes
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new CountingInputStream(in, search), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        String line;
+        while (!search.isFinished() && (line = reader.readLine()) != null) {
+            search.accept(parser.parse(line), this, sender);
+        }
+    }
+
+    /**
+     * Stream positioned at an uncompressed offset of the target's log content
+     * Gzip members are independent, so reading starts at the member containing the offset
+     */
+    private static InputStream openAt(Target target, long offset) throws IOException {
+        switch (target.kind) {
+            case GZIP:
+                return openGzipAt(target.file, target.index.members, offset, Long.MAX_VALUE);
+
+            case ARCHIVE_PLAIN:
+                return openGzipAt(target.file, target.archiveIndex.members, target.archiveOffset + offset, Long.MAX_VALUE);
+
+            case ARCHIVE_GZIP: {
+                // Compressed segment stored inside the archive - seek outer stream to the inner member
+                long[] member = findMember(target.index.members, offset);
+                InputStream outer = openGzipAt(target.file, target.archiveIndex.members,
+                        target.archiveOffset + member[1], target.archiveSize - member[1]);
+                InputStream in = new GZIPInputStream(outer, STREAM_BUFFER_SIZE);
+                skipFully(in, offset - member[0]);
+                return in;
+            }
+
+            default:
+                throw new IOException("Unsupported log source: " + target.kind);
+        }
+    }
+
+    private static InputStream openGzipAt(Path file, List<long[]> members, long offset, long limit) throws IOException {
+        long[] member = findMember(members, offset);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(member[1]);
+
+        InputStream in = new GZIPInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_SIZE), STREAM_BUFFER_SIZE);
+        try {
+            skipFully(in, offset - member[0]);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BoundedInputStream(in, limit);
+    }
+
+    /**
+     * Last member starting at or before the offset, {uncompressed, compressed}
+     */
+    private static long[] findMember(List<long[]> members, long offset) {
+        long[] found = {0, 0};
+        int low = 0;
+        int high = members.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long[] member = members.get(middle);
+            if (member[0] <= offset) {
+                found = member;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        while (count > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, count));
+            if (read < 0) {
+                throw new EOFException("Index points past end of log");
+            }
+            count -= read;
+        }
+    }
+
+    /**
+     * Archive without a sidecar is read entry by entry
+     */
+    private void scanArchive(Target target, Search search, CommandSender sender) throws IOException {
+        try (TarArchiveReader tar = new TarArchiveReader(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(target.file), STREAM_BUFFER_SIZE), STREAM_BUFFER_SIZE))) {
+
+            TarArchiveReader.Entry entry;
+            while (!search.isFinished() && (entry = tar.nextEntry()) != null) {
+                LogFormat format = LogFormat.ofFile(entry.getName());
+                if (format == null) continue;
+
+                String logName = LogWriter.logNameOf(entry.getName());
+                if (search.session.query.logName != null && !logName.equalsIgnoreCase(search.session.query.logName)) {
+                    continue;
+                }
+
+                search.totalBlocks++;
+                search.scannedBlocks++;
+                InputStream in = tar.getEntryStream();
+                if (entry.getName().endsWith(".gz")) {
+                    in = new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+                }
+                scanStream(in, format, search, sender);
+            }
+        }
+    }
+
+    // ========== INDEX ==========
+
+    private static FileIndex readIndex(Path indexFile, long size) throws IOException {
+        FileIndex index = new FileIndex();
+        if (Files.exists(indexFile)) {
+            for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+                index.apply(line);
+            }
+        }
+        finishIndex(index, size);
+        return index;
+    }
+
+    /**
+     * Archive sidecar: archive member table, then "F name offset size" followed by that file's own index
+     */
+    private static List<ArchiveFile> readArchiveIndex(Path sidecar) throws IOException {
+        FileIndex archiveIndex = new FileIndex();
+        List<ArchiveFile> files = new ArrayList<>();
+        FileIndex current = archiveIndex;
+
+        for (String line : Files.readAllLines(sidecar, StandardCharsets.UTF_8)) {
+            if (line.startsWith("F ")) {
+                String[] parts = line.split(" ");
+                if (parts.length != 4) continue;
+
+                try {
+                    current = new FileIndex();
+                    files.add(new ArchiveFile(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), current, archiveIndex));
+                } catch (NumberFormatException ignored) {
+                }
+                continue;
+            }
+            current.apply(line);
+        }
+        return files;
+    }
+
+    /**
+     * Close block ranges, content before the first checkpoint is an unindexed block
+     */
+    private static void finishIndex(FileIndex index, long size) {
+        List<Block> blocks = index.blocks;
+        blocks.removeIf(block -> block.start >= size);
+
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            block.end = i + 1 < blocks.size() ? blocks.get(i + 1).start : size;
+            block.to = i + 1 < blocks.size() ? blocks.get(i + 1).from : Long.MAX_VALUE;
+        }
+
+        long firstStart = blocks.isEmpty() ? size : blocks.get(0).start;
+        if (firstStart > 0) {
+            Block unindexed = new Block(0, Long.MIN_VALUE, null);
+            unindexed.end = firstStart;
+            unindexed.to = Long.MAX_VALUE;
+            blocks.add(0, unindexed);
+        }
+    }
+
+    // ========== MODEL ==========
+
+    private enum Kind {
+        PLAIN, GZIP, ARCHIVE_PLAIN, ARCHIVE_GZIP, ARCHIVE_SCAN
+    }
+
+    private record Query(String term, String logName, long from, long to) {
+    }
+
+    /**
+     * Results of one search, kept for /asc logs page
+     */
+    private static final class Session {
+        private final Query query;
+        private final List<String> hits = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        private Session(Query query) {
+            this.query = query;
+        }
+    }
+
+    /**
+     * Per-run state, only touched by the search thread
+     */
+    private static final class Search {
+        private final Session session;
+        private final String termLower;
+        private final UUID termId;
+        private boolean playerMode;
+        private boolean firstPageSent;
+        private boolean limitReached;
+        private int totalBlocks;
+        private int scannedBlocks;
+        private long bytesRead;
+        private byte[] lineBytes = new byte[1024];
+
+        private Search(Session session) {
+            this.session = session;
+            this.termLower = session.query.term.toLowerCase(Locale.ROOT);
+            this.termId = parseUuid(session.query.term);
+        }
+
+        private static UUID parseUuid(String value) {
+            try {
+                return value.length() == 36 ? UUID.fromString(value) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private boolean isFinished() {
+            return limitReached || session.cancelled;
+        }
+
+        private boolean matches(Block block) {
+            Query query = session.query;
+            // Open ends (the unindexed lead block, the last block) must not take the slack, it would overflow
+            if (block.from != Long.MIN_VALUE && block.from - TIME_SLACK_MS > query.to) return false;
+            if (block.to != Long.MAX_VALUE && block.to + TIME_SLACK_MS < query.from) return false;
+            return !playerMode || block.players == null || block.players.contains(termLower);
+        }
+
+        /**
+         * Scratch buffer for one binary record
+         */
+        private byte[] recordBuffer(int length) {
+            if (lineBytes.length < length) {
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            }
+            return lineBytes;
+        }
+
+        /**
+         * Match decoded entry (null for lines that are not log entries) and collect it as a hit
+         */
+        private void accept(LogWriter.LogEntry entry, LogSearch owner, CommandSender sender) {
+            if (entry == null) return;
+
+            Query query = session.query;
+            boolean playerMatch = entry.getPlayerName().equalsIgnoreCase(query.term)
+                    || (termId != null && termId.equals(entry.getPlayerId()));
+            if (playerMode ? !playerMatch
+                    : !playerMatch && !entry.getMessage().toLowerCase(Locale.ROOT).contains(termLower)) {
+                return;
+            }
+
+            if (entry.getTimestamp() < query.from || entry.getTimestamp() > query.to) return;
+
+            String hit = owner.plugin.getMessageUtils().colorize("&8[" + LogFormat.formatTimestamp(entry.getTimestamp())
+                    + "] &7[" + entry.getChannel() + "] &f" + entry.getPlayerName() + "&7: &f") + entry.getMessage();
+
+            int count;
+            synchronized (session.hits) {
+                session.hits.add(hit);
+                count = session.hits.size();
+            }
+
+            if (count >= MAX_RESULTS) {
+                limitReached = true;
+            }
+
+            // Stream first page back as soon as it is full
+            if (count == PAGE_SIZE && !firstPageSent) {
+                firstPageSent = true;
+                owner.plugin.getServer().getScheduler().runTask(owner.plugin, () -> owner.sendPage(sender, session, 1));
+            }
+        }
+    }
+
+    /**
+     * Parsed sidecar of one log file
+     */
+    private static final class FileIndex {
+        private final List<Block> blocks = new ArrayList<>();
+        private final List<long[]> members = new ArrayList<>();
+        private final Set<String> players = new HashSet<>();
+
+        private void apply(String line) {
+            String[] parts = line.split(" ");
+            try {
+                switch (parts[0]) {
+                    case "T":
+                        if (parts.length == 3) {
+                            blocks.add(new Block(Long.parseLong(parts[2]), Long.parseLong(parts[1]), new HashSet<>()));
+                        }
+                        break;
+                    case "P":
+                        if (parts.length == 2) {
+                            players.add(parts[1]);
+                            if (!blocks.isEmpty()) {
+                                blocks.get(blocks.size() - 1).players.add(parts[1]);
+                            }
+                        }
+                        break;
+                    case "M":
+                        if (parts.length == 3) {
+                            members.add(new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException ignored) {
+                // Partially written line after a crash
+            }
+        }
+    }
+
+    /**
+     * Indexed range of a log, players is null when unknown
+     */
+    private static final class Block {
+        private final long start;
+        private final long from;
+        private final Set<String> players;
+        private long end;
+        private long to;
+
+        private Block(long start, long from, Set<String> players) {
+            this.start = start;
+            this.from = from;
+            this.players = players;
+        }
+    }
+
+    private record ArchiveFile(String name, long offset, long size, FileIndex index, FileIndex archiveIndex) {
+    }
+
+    private record Target(String label, Path file, Kind kind, LogFormat format, FileIndex index, FileIndex archiveIndex,
+                          long archiveOffset, long archiveSize) {
+    }
+
+    /**
+     * Limits reads to a byte range, available() is kept so concatenated gzip members are still read
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = in.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) remaining -= read;
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+    /**
+     * Adds every byte read to the search's bytesRead
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final Search search;
+
+        private CountingInputStream(InputStream in, Search search) {
+            super(in);
+            this.search = search;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) search.bytesRead++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = in.read(bytes, offset, length);
+            if (read > 0) search.bytesRead += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = in.skip(count);
+            search.bytesRead += skipped;
+            return skipped;
+        }
+    }
+}
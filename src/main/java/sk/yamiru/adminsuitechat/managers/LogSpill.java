@@ -0,0 +1,140 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Overflow file for the "spill" queue policy (logs/queue.spill)
+ * Entries that do not fit into the log queue are appended here and replayed in order by the writer thread
+ */
+public class LogSpill {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path spillFile;
+    private final Path drainFile;
+    private DataOutputStream out;
+
+    public LogSpill(Path logDirectory) {
+        this.spillFile = logDirectory.resolve("queue.spill");
+        this.drainFile = logDirectory.resolve("queue.spill.draining");
+    }
+
+    /**
+     * Entries left over from a previous run (crash or shutdown timeout)
+     */
+    public boolean hasLeftovers() {
+        return Files.exists(spillFile) || Files.exists(drainFile);
+    }
+
+    /**
+     * Append entry (caller synchronizes)
+     */
+    public void append(LogWriter.LogEntry entry) throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), BUFFER_SIZE));
+        }
+
+        out.writeUTF(entry.getFilename());
+        out.writeUTF(entry.getChannel());
+        UUID playerId = entry.getPlayerId();
+        out.writeBoolean(playerId != null);
+        if (playerId != null) {
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+        }
+        out.writeUTF(entry.getPlayerName());
+        out.writeLong(entry.getTimestamp());
+        byte[] message = entry.getMessage().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(message.length);
+        out.write(message);
+    }
+
+    /**
+     * Close current spill file and hand it over for replay, new entries start a fresh file (caller synchronizes)
+     *
+     * @return true when something was spilled since the last call
+     */
+    public boolean rotate() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+
+        // A drain file that was not finished (crash) is replayed first
+        if (Files.exists(drainFile)) {
+            return true;
+        }
+        if (!Files.exists(spillFile)) {
+            return false;
+        }
+
+        Files.move(spillFile, drainFile, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    /**
+     * Whether entries were spilled since the last rotate (caller synchronizes)
+     */
+    public boolean isOpen() {
+        return out != null;
+    }
+
+    /**
+     * Replay rotated spill file in order, then delete it
+     * A truncated last entry (crash while spilling) ends the replay
+     */
+    public void drain(EntryHandler handler) throws IOException {
+        if (!Files.exists(drainFile)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(drainFile), BUFFER_SIZE))) {
+            while (true) {
+                LogWriter.LogEntry entry;
+                try {
+                    String filename = in.readUTF();
+                    String channel = in.readUTF();
+                    UUID playerId = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+                    String playerName = in.readUTF();
+                    long timestamp = in.readLong();
+                    int length = in.readInt();
+                    if (length < 0 || length > LogFormat.MAX_RECORD_BYTES) break;
+                    byte[] message = new byte[length];
+                    in.readFully(message);
+                    entry = new LogWriter.LogEntry(filename, channel, playerId, playerName,
+                            new String(message, StandardCharsets.UTF_8), timestamp);
+                } catch (EOFException e) {
+                    break;
+                }
+                handler.accept(entry);
+            }
+        }
+
+        Files.delete(drainFile);
+    }
+
+    /**
+     * Close spill file without replaying it (kept for the next start)
+     */
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryHandler {
+        void accept(LogWriter.LogEntry entry) throws IOException;
+    }
+}
@@ -0,0 +1,726 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.Bukkit;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.utils.ByteSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Single-writer logging engine
+ * Chat threads only enqueue entries, one dedicated thread owns all log files
+ */
+public class LogWriter implements Runnable {
+
+    private static final DateTimeFormatter SEGMENT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").withZone(ZoneId.systemDefault());
+    private static final Pattern SEGMENT_SUFFIX = Pattern.compile("-\\d{4}-\\d{2}-\\d{2}_\\d{2}-\\d{2}-\\d{2}(-\\d+)?$");
+    private static final int MAX_BATCH_SIZE = 512;
+    // How long the "block" overflow policy waits for queue space (chat threads only, never the server thread)
+    private static final long OFFER_TIMEOUT_MS = 50;
+    private static final long POLL_TIMEOUT_MS = 250;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    // A new index checkpoint is written once the file grew by this many bytes
+    private static final long INDEX_INTERVAL_BYTES = 64 * 1024;
+
+    private final AdminSuiteChat plugin;
+    private final Path logDirectory;
+    private final long maxFileBytes;
+    private final LogFormat format;
+    private final LogDurability durability;
+    private final OverflowPolicy overflowPolicy;
+    private final int queueCapacity;
+    private final Consumer<Path> segmentHandler;
+    private final BlockingQueue<LogEntry> queue;
+    private final Object fileLock = new Object();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong spillPending = new AtomicLong();
+    // Entries written to a file but not forced to disk yet
+    private final AtomicLong unsyncedEntries = new AtomicLong();
+    private final AtomicLong syncCount = new AtomicLong();
+
+    // Owned by the writer thread (guarded by fileLock)
+    private final Map<String, OpenLog> openFiles = new HashMap<>();
+    private final Map<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private final List<LogEntry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] cachedTimestamp = new byte[0];
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    // Overflow file, used by the spill policy and for leftovers of a previous run
+    private final LogSpill spill;
+    private final Object spillLock = new Object();
+    private volatile boolean spilling;
+    private volatile int highWaterMark;
+
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param maxFileBytes   size after which a log file is rolled, 0 disables runtime rotation
+     * @param format         encoding of new entries
+     * @param durability     when written entries are forced to disk
+     * @param queueCapacity  maximum number of entries waiting for the writer thread
+     * @param overflowPolicy what happens to entries arriving while the queue is full
+     * @param segmentHandler receives every rolled segment (called on the writer thread)
+     */
+    public LogWriter(AdminSuiteChat plugin, Path logDirectory, long maxFileBytes, LogFormat format,
+                     LogDurability durability, int queueCapacity, OverflowPolicy overflowPolicy,
+                     Consumer<Path> segmentHandler) {
+        this.plugin = plugin;
+        this.logDirectory = logDirectory;
+        this.maxFileBytes = maxFileBytes;
+        this.format = format;
+        this.durability = durability;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.segmentHandler = segmentHandler;
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.spill = new LogSpill(logDirectory);
+        this.thread = new Thread(this, "AdminSuiteChat-LogWriter");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        // Entries spilled by a previous run are written before anything new
+        if (spill.hasLeftovers()) {
+            spilling = true;
+        }
+
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Queue log entry for the writer thread (safe from any thread)
+     * A full queue is handled by the overflow policy
+     */
+    public boolean enqueue(LogEntry entry) {
+        if (!running) return false;
+
+        boolean accepted = switch (overflowPolicy) {
+            case BLOCK -> offerBlocking(entry);
+            case DROP_NEWEST -> queue.offer(entry);
+            case DROP_OLDEST -> offerDroppingOldest(entry);
+            case SPILL -> offerOrSpill(entry);
+        };
+
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            recordDrop();
+        }
+        return accepted;
+    }
+
+    private boolean offerBlocking(LogEntry entry) {
+        // The server thread never waits for the writer, a full queue drops the entry there (counted as dropped)
+        if (Bukkit.isPrimaryThread()) {
+            return queue.offer(entry);
+        }
+
+        try {
+            return queue.offer(entry, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerDroppingOldest(LogEntry entry) {
+        while (!queue.offer(entry)) {
+            if (queue.poll() != null) {
+                recordDrop();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Once anything is spilled, new entries follow it into the spill file until the writer caught up,
+     * so entries are still written in arrival order
+     */
+    private boolean offerOrSpill(LogEntry entry) {
+        if (!spilling && queue.offer(entry)) {
+            return true;
+        }
+
+        synchronized (spillLock) {
+            if (!spilling && queue.offer(entry)) {
+                return true;
+            }
+
+            try {
+                spill.append(entry);
+                spilling = true;
+                spilled.incrementAndGet();
+                spillPending.incrementAndGet();
+                return true;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to spill log entry: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void recordDrop() {
+        // Warn only on the first drop of every thousand to avoid flooding the console
+        if (dropped.getAndIncrement() % 1000 == 0) {
+            plugin.getLogger().warning("Log queue is full - dropping log entries (dropped so far: " + dropped.get() + ")");
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running || !queue.isEmpty() || spilling) {
+            try {
+                // Spilled entries are older than anything queued after them, replay once the queue is empty
+                if (spilling && queue.isEmpty()) {
+                    drainSpill();
+                    syncIfDue();
+                    continue;
+                }
+
+                LogEntry first = queue.poll(pollTimeout(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    // The queue only shrinks here, so its size right now is the peak since the last batch
+                    int depth = Math.min(queue.size() + 1, queueCapacity);
+                    if (depth > highWaterMark) {
+                        highWaterMark = depth;
+                    }
+
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    writeBatch();
+                }
+
+                // Group commit - one force per dirty file covers the whole batch
+                syncIfDue();
+            } catch (InterruptedException e) {
+                // Shutdown requested - loop drains whatever is left
+                running = false;
+            } catch (RuntimeException e) {
+                // Never let one bad batch kill the writer thread
+                plugin.getLogger().warning("Log writer failed to write batch: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+
+        synchronized (fileLock) {
+            closeFiles();
+        }
+
+        // Entries spilled after the writer stopped are replayed on the next start
+        synchronized (spillLock) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to close log spill file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write everything spilled so far, in order
+     */
+    private void drainSpill() {
+        try {
+            boolean rotated;
+            synchronized (spillLock) {
+                rotated = spill.rotate();
+            }
+
+            if (rotated) {
+                spill.drain(entry -> {
+                    batch.add(entry);
+                    spillPending.decrementAndGet();
+                    if (batch.size() >= MAX_BATCH_SIZE) {
+                        writeBatch();
+                        batch.clear();
+                    }
+                });
+                if (!batch.isEmpty()) {
+                    writeBatch();
+                    batch.clear();
+                }
+            }
+
+            synchronized (spillLock) {
+                // Nothing was spilled meanwhile - go back to the queue
+                if (!spill.isOpen()) {
+                    spilling = false;
+                    spillPending.set(0);
+                }
+            }
+        } catch (IOException e) {
+            // Spill file stays on disk and is replayed on the next start
+            plugin.getLogger().warning("Failed to replay spilled log entries: " + e.getMessage());
+            spilling = false;
+        }
+    }
+
+    /**
+     * Wake up in time for the next interval sync even when no entries arrive
+     */
+    private long pollTimeout() {
+        long interval = durability.getIntervalMs();
+        if (interval <= 0 || unsyncedEntries.get() == 0) {
+            return POLL_TIMEOUT_MS;
+        }
+        long untilSync = lastSyncMillis + interval - System.currentTimeMillis();
+        return Math.max(1, Math.min(POLL_TIMEOUT_MS, untilSync));
+    }
+
+    private void syncIfDue() {
+        if (durability.shouldSync(unsyncedEntries.get(), System.currentTimeMillis() - lastSyncMillis)) {
+            synchronized (fileLock) {
+                syncFiles();
+            }
+        }
+    }
+
+    /**
+     * Force every file with unsynced entries to disk
+     */
+    private void syncFiles() {
+        for (Map.Entry<String, OpenLog> entry : openFiles.entrySet()) {
+            OpenLog log = entry.getValue();
+            if (log.unsynced == 0) continue;
+
+            try {
+                log.channel.force(false);
+                syncCount.incrementAndGet();
+                unsyncedEntries.addAndGet(-log.unsynced);
+                log.unsynced = 0;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to sync log file " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Write one batch with a single write call per log file (group commit)
+     */
+    private void writeBatch() {
+        for (LogEntry entry : batch) {
+            PendingWrite pending = pendingWrites.computeIfAbsent(entry.getFilename(), k -> new PendingWrite());
+            pending.add(entry);
+            format.encode(entry, formatTimestamp(entry.getTimestamp()), pending.data);
+        }
+
+        synchronized (fileLock) {
+            for (Map.Entry<String, PendingWrite> entry : pendingWrites.entrySet()) {
+                PendingWrite pending = entry.getValue();
+                if (pending.isEmpty()) {
+                    continue;
+                }
+
+                String filename = entry.getKey();
+                try {
+                    OpenLog log = getLog(filename);
+                    long offset = log.size;
+
+                    ByteBuffer bytes = pending.data.toByteBuffer();
+                    while (bytes.hasRemaining()) {
+                        log.channel.write(bytes);
+                    }
+                    log.size += pending.data.size();
+                    log.unsynced += pending.entries;
+                    unsyncedEntries.addAndGet(pending.entries);
+                    written.addAndGet(pending.entries);
+
+                    writeIndex(log, offset, pending);
+
+                    if (maxFileBytes > 0 && log.size >= maxFileBytes) {
+                        rollFile(filename);
+                    }
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Failed to write to log file " + filename + ": " + e.getMessage());
+                    closeFile(filename);
+                }
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Sparse index next to each log (staff.log.idx), used by log search
+     * "T millis offset" starts a block, "P name" lists players seen in the current block
+     */
+    private void writeIndex(OpenLog log, long offset, PendingWrite pending) throws IOException {
+        StringBuilder index = pending.index;
+
+        if (log.lastCheckpoint < 0 || offset - log.lastCheckpoint >= INDEX_INTERVAL_BYTES) {
+            index.append("T ").append(pending.firstTimestamp).append(' ').append(offset).append('\n');
+            log.lastCheckpoint = offset;
+            log.blockPlayers.clear();
+        }
+
+        for (String player : pending.players) {
+            if (log.blockPlayers.add(player)) {
+                index.append("P ").append(player).append('\n');
+            }
+        }
+
+        if (index.length() > 0) {
+            ByteBuffer bytes = ByteBuffer.wrap(index.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                log.indexChannel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Timestamps have second precision, so consecutive entries reuse the same encoded bytes
+     */
+    private byte[] formatTimestamp(long timestamp) {
+        long second = Math.floorDiv(timestamp, 1000L);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = LogFormat.formatTimestamp(timestamp).getBytes(StandardCharsets.US_ASCII);
+        }
+        return cachedTimestamp;
+    }
+
+    private OpenLog getLog(String filename) throws IOException {
+        OpenLog log = openFiles.get(filename);
+        if (log == null) {
+            Path logFile = logDirectory.resolve(filename);
+            FileChannel channel = FileChannel.open(logFile,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            FileChannel indexChannel;
+            try {
+                indexChannel = FileChannel.open(indexFileOf(logFile),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+
+            log = new OpenLog(channel, indexChannel);
+            openFiles.put(filename, log);
+        }
+        return log;
+    }
+
+    /**
+     * Close active file and atomically rename it to a timestamped segment
+     * The writer reopens a fresh file with the next batch
+     */
+    private void rollFile(String filename) throws IOException {
+        closeFile(filename);
+
+        Path activeFile = logDirectory.resolve(filename);
+        String baseName = LogFormat.stripExtension(filename);
+        LogFormat fileFormat = LogFormat.ofFile(filename);
+        String extension = fileFormat != null ? fileFormat.getExtension() : format.getExtension();
+        String stamp = SEGMENT_FORMAT.format(Instant.now());
+
+        // Several rolls within one second get a counter suffix
+        Path segment = logDirectory.resolve(baseName + "-" + stamp + extension);
+        for (int i = 1; Files.exists(segment) || Files.exists(segment.resolveSibling(segment.getFileName() + ".gz")); i++) {
+            segment = logDirectory.resolve(baseName + "-" + stamp + "-" + i + extension);
+        }
+
+        moveAtomically(activeFile, segment);
+        if (Files.exists(indexFileOf(activeFile))) {
+            moveAtomically(indexFileOf(activeFile), indexFileOf(segment));
+        }
+
+        // Writer thread, the trace goes to console through the ConsoleSink
+        plugin.getDebugTrace().trace(null, null, "Rolled log file {} to {}", filename, segment.getFileName());
+        segmentHandler.accept(segment);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    /**
+     * Index sidecar of a log file or compressed segment (staff.log.gz -> staff.log.idx)
+     */
+    public static Path indexFileOf(Path logFile) {
+        String name = logFile.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return logFile.resolveSibling(name + ".idx");
+    }
+
+    /**
+     * Log name of an active file or rolled segment (staff-2024-01-01_10-00-00.log.gz -> staff)
+     */
+    public static String logNameOf(String filename) {
+        return SEGMENT_SUFFIX.matcher(LogFormat.stripExtension(filename)).replaceFirst("");
+    }
+
+    private void closeFile(String filename) {
+        OpenLog log = openFiles.remove(filename);
+        if (log == null) return;
+
+        try (FileChannel indexChannel = log.indexChannel) {
+            if (log.unsynced > 0 && durability.syncsOnClose()) {
+                log.channel.force(false);
+                syncCount.incrementAndGet();
+            }
+            log.channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to close log file " + filename + ": " + e.getMessage());
+        } finally {
+            unsyncedEntries.addAndGet(-log.unsynced);
+        }
+    }
+
+    private void closeFiles() {
+        for (String filename : new ArrayList<>(openFiles.keySet())) {
+            closeFile(filename);
+        }
+    }
+
+    /**
+     * Run file operation while no log file is held open by the writer
+     * Files are reopened lazily with the next batch
+     */
+    public void runWithFilesClosed(FileAction action) throws IOException {
+        synchronized (fileLock) {
+            closeFiles();
+            action.run();
+        }
+    }
+
+    /**
+     * Stop accepting entries, drain the queue and close all files
+     */
+    public void shutdown() {
+        running = false;
+
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            plugin.getLogger().warning("Log writer did not finish in time - " + queue.size() + " entries not written");
+            thread.interrupt();
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Entries that would be lost on a crash right now: queued, spilled, or written but not forced to disk
+     * With durability "none" written entries count until their file is closed
+     */
+    public long getEntriesAtRisk() {
+        return queue.size() + spillPending.get() + unsyncedEntries.get();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * Largest queue depth seen by the writer thread
+     */
+    public int getQueueHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    public LogDurability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Log file held open by the writer thread
+     */
+    private static final class OpenLog {
+        private final FileChannel channel;
+        private final FileChannel indexChannel;
+        private final Set<String> blockPlayers = new HashSet<>();
+        private long size;
+        private long lastCheckpoint = -1;
+        private long unsynced;
+
+        private OpenLog(FileChannel channel, FileChannel indexChannel) throws IOException {
+            this.channel = channel;
+            this.indexChannel = indexChannel;
+            this.size = channel.size();
+        }
+    }
+
+    /**
+     * Encoded entries and index data of one file collected from the current batch
+     * Buffers are reused for every batch
+     */
+    private static final class PendingWrite {
+        private final ByteSink data = new ByteSink(4096);
+        private final StringBuilder index = new StringBuilder(64);
+        private final Set<String> players = new HashSet<>();
+        private long firstTimestamp = -1;
+        private int entries;
+
+        private void add(LogEntry entry) {
+            entries++;
+            if (firstTimestamp < 0) {
+                firstTimestamp = entry.getTimestamp();
+            }
+            players.add(entry.getPlayerName().toLowerCase());
+        }
+
+        private boolean isEmpty() {
+            return data.isEmpty();
+        }
+
+        private void clear() {
+            data.reset();
+            index.setLength(0);
+            players.clear();
+            firstTimestamp = -1;
+            entries = 0;
+        }
+    }
+
+    /**
+     * What happens to an entry arriving while the queue is full (logging.queue.overflow)
+     */
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, DROP_NEWEST, SPILL;
+
+        public static OverflowPolicy fromConfig(String value) {
+            if (value == null) return BLOCK;
+
+            return switch (value.toLowerCase().replace('_', '-')) {
+                case "drop-oldest" -> DROP_OLDEST;
+                case "drop-newest" -> DROP_NEWEST;
+                case "spill" -> SPILL;
+                default -> BLOCK;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /**
+     * File operation executed under the writer's file lock
+     */
+    @FunctionalInterface
+    public interface FileAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Immutable log entry captured on the chat thread
+     */
+    public static final class LogEntry {
+        private final String filename;
+        private final String channel;
+        private final UUID playerId;
+        private final String playerName;
+        private final String message;
+        private final long timestamp;
+
+        /**
+         * @param playerId player UUID, null when unknown
+         */
+        public LogEntry(String filename, String channel, UUID playerId, String playerName, String message, long timestamp) {
+            this.filename = filename;
+            this.channel = channel;
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public UUID getPlayerId() {
+            return playerId;
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.entity.Player;
+import sk.yamiru.adminsuitechat.models.Settings;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Resolved PlaceholderAPI values per player and channel (or helpme queue), kept for a short TTL
+ * Cleared on quit, world change, LuckPerms recalculation and reload, other plugins may call invalidate
+ */
+public class PlaceholderCache {
+
+    // Player -> scope (channel or helpme id) -> token -> value
+    private final Map<UUID, Map<String, Map<String, Entry>>> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile long ttlNanos;
+
+    /**
+     * Apply settings snapshot (enable and reload), all cached values are dropped
+     */
+    public void configure(Settings settings) {
+        ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, settings.getPlaceholderCacheSeconds()));
+        cache.clear();
+    }
+
+    /**
+     * Cached value of one placeholder token, the resolver runs on a miss or after the TTL (safe from chat threads)
+     */
+    public String resolve(Player player, String scope, String token, UnaryOperator<String> resolver) {
+        long ttl = ttlNanos;
+        if (ttl <= 0) {
+            return resolver.apply(token);
+        }
+
+        Map<String, Entry> tokens = cache
+                .computeIfAbsent(player.getUniqueId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(scope, s -> new ConcurrentHashMap<>());
+
+        long now = System.nanoTime();
+        Entry entry = tokens.get(token);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        String value = resolver.apply(token);
+        tokens.put(token, new Entry(value, now + ttl));
+        return value;
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    public void invalidate(UUID playerId) {
+        cache.remove(playerId);
+    }
+
+    public void invalidate(Player player) {
+        invalidate(player.getUniqueId());
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Hits in percent of all lookups, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total > 0 ? hitCount * 100.0 / total : 0;
+    }
+
+    /**
+     * Players with cached values
+     */
+    public int getPlayerCount() {
+        return cache.size();
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.models.ChatChannel;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Online players holding each channel permission, so fanout only visits actual recipients
+ * Updated on join, quit, world change, LuckPerms recalculation, reload and a periodic resync
+ */
+public class RecipientIndex {
+
+    public static final String HELPME_SEE_PERMISSION = "adminsuitechat.helpme.see";
+
+    private final AdminSuiteChat plugin;
+    // Permission -> online players holding it, replaced as a whole on rebuild
+    private volatile Map<String, Set<Player>> recipients = new ConcurrentHashMap<>();
+    private BukkitTask resyncTask;
+    private AutoCloseable luckPermsSubscription;
+
+    public RecipientIndex(AdminSuiteChat plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Rebuild index for all channels and online players (main thread)
+     */
+    public void rebuild() {
+        Map<String, Set<Player>> index = new ConcurrentHashMap<>();
+        for (String permission : trackedPermissions()) {
+            index.put(permission, ConcurrentHashMap.newKeySet());
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            for (Map.Entry<String, Set<Player>> entry : index.entrySet()) {
+                if (player.hasPermission(entry.getKey())) {
+                    entry.getValue().add(player);
+                }
+            }
+        }
+
+        recipients = index;
+        scheduleResync();
+        plugin.debugMessage("Recipient index rebuilt for " + index.size() + " permissions");
+    }
+
+    private Set<String> trackedPermissions() {
+        Set<String> permissions = new HashSet<>();
+        for (ChatChannel channel : plugin.getChannelManager().getAllChannels()) {
+            permissions.add(channel.getPermission());
+        }
+        permissions.add(HELPME_SEE_PERMISSION);
+        return permissions;
+    }
+
+    /**
+     * Re-check all tracked permissions of one player (join, world change, permission recalculation)
+     */
+    public void refresh(Player player) {
+        if (!player.isOnline()) {
+            remove(player);
+            return;
+        }
+
+        for (Map.Entry<String, Set<Player>> entry : recipients.entrySet()) {
+            if (player.hasPermission(entry.getKey())) {
+                entry.getValue().add(player);
+            } else {
+                entry.getValue().remove(player);
+            }
+        }
+    }
+
+    public void remove(Player player) {
+        for (Set<Player> players : recipients.values()) {
+            players.remove(player);
+        }
+    }
+
+    /**
+     * Online players holding the permission (safe from chat threads)
+     * Permissions not in the index are checked live
+     */
+    public Collection<? extends Player> getRecipients(String permission) {
+        Set<Player> players = recipients.get(permission);
+        if (players != null) {
+            return players;
+        }
+
+        List<Player> live = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission(permission)) {
+                live.add(player);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Compare index against live permission checks and repair differences (main thread)
+     *
+     * @return permission -> mismatched player names ("+name" missing from index, "-name" stale), only permissions with differences
+     */
+    public Map<String, List<String>> checkConsistency() {
+        Map<String, List<String>> mismatches = new TreeMap<>();
+
+        for (Map.Entry<String, Set<Player>> entry : recipients.entrySet()) {
+            String permission = entry.getKey();
+            Set<Player> indexed = entry.getValue();
+            List<String> differences = new ArrayList<>();
+
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.hasPermission(permission) && indexed.add(player)) {
+                    differences.add("+" + player.getName());
+                }
+            }
+            for (Iterator<Player> iterator = indexed.iterator(); iterator.hasNext(); ) {
+                Player player = iterator.next();
+                if (!player.isOnline() || !player.hasPermission(permission)) {
+                    iterator.remove();
+                    differences.add("-" + player.getName());
+                }
+            }
+
+            if (!differences.isEmpty()) {
+                mismatches.put(permission, differences);
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Indexed permission -> recipient count
+     */
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, Set<Player>> entry : recipients.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return counts;
+    }
+
+    /**
+     * Periodic resync catches permission changes without an event (e.g. /op or other permission plugins)
+     */
+    private void scheduleResync() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+
+        int seconds = plugin.getConfig().getInt("settings.recipient-resync-seconds", 300);
+        if (seconds <= 0) {
+            return;
+        }
+
+        long ticks = seconds * 20L;
+        resyncTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            int repaired = 0;
+            for (List<String> differences : checkConsistency().values()) {
+                repaired += differences.size();
+            }
+            if (repaired > 0) {
+                plugin.debugMessage("Recipient index resync repaired " + repaired + " entries");
+            }
+        }, ticks, ticks);
+    }
+
+    /**
+     * Refresh players when LuckPerms recalculates their permissions (UserDataRecalculateEvent, via reflection)
+     */
+    public void hookLuckPerms(Object luckPerms) {
+        try {
+            Class<?> eventBusClass = Class.forName("net.luckperms.api.event.EventBus");
+            Class<?> eventClass = Class.forName("net.luckperms.api.event.user.UserDataRecalculateEvent");
+            Method getUser = eventClass.getMethod("getUser");
+            Method getUniqueId = Class.forName("net.luckperms.api.model.user.User").getMethod("getUniqueId");
+
+            Object eventBus = luckPerms.getClass().getMethod("getEventBus").invoke(luckPerms);
+            Method subscribe = eventBusClass.getMethod("subscribe", Object.class, Class.class, Consumer.class);
+
+            Consumer<Object> handler = event -> {
+                try {
+                    UUID playerId = (UUID) getUniqueId.invoke(getUser.invoke(event));
+                    // Rank prefixes and suffixes may have changed
+                    plugin.getPlaceholderCache().invalidate(playerId);
+                    // LuckPerms fires this off the main thread
+                    plugin.getServer().getScheduler().runTask(plugin, () -> {
+                        Player player = Bukkit.getPlayer(playerId);
+                        if (player != null) {
+                            refresh(player);
+                        }
+                    });
+                } catch (Exception e) {
+                    plugin.debugMessage("Failed to handle LuckPerms recalculation: " + e.getMessage());
+                }
+            };
+
+            luckPermsSubscription = (AutoCloseable) subscribe.invoke(eventBus, plugin, eventClass, handler);
+            plugin.debugMessage("Recipient index listening to LuckPerms recalculations");
+        } catch (Exception e) {
+            plugin.getLogger().warning("Could not listen to LuckPerms permission changes: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+
+        if (luckPermsSubscription != null) {
+            try {
+                luckPermsSubscription.close();
+            } catch (Exception e) {
+                plugin.debugMessage("Failed to close LuckPerms subscription: " + e.getMessage());
+            }
+            luckPermsSubscription = null;
+        }
+
+        recipients = new ConcurrentHashMap<>();
+    }
+}
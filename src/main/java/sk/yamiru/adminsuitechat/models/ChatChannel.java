@@ -1,5 +1,7 @@
 package sk.yamiru.adminsuitechat.models;
 
+import sk.yamiru.adminsuitechat.utils.MessageTemplate;
+
 public class ChatChannel {
 
     private final String id;
@@ -13,10 +15,14 @@ public class ChatChannel {
     private final String logFilename;
     private final String luckPermsGroup;
     private final boolean isCustom;
+    // Compiled format (prefix already inlined) and console format
+    private final MessageTemplate formatTemplate;
+    private final MessageTemplate consoleTemplate;
 
     public ChatChannel(String id, String shortcut, String command, String permission, String prefix, 
                       String format, String consoleFormat, boolean logToFile, String logFilename,
-                      String luckPermsGroup, boolean isCustom) {
+                      String luckPermsGroup, boolean isCustom,
+                      MessageTemplate formatTemplate, MessageTemplate consoleTemplate) {
         this.id = id;
         this.shortcut = shortcut;
         this.command = command;
@@ -28,6 +34,8 @@ public class ChatChannel {
         this.logFilename = logFilename;
         this.luckPermsGroup = luckPermsGroup;
         this.isCustom = isCustom;
+        this.formatTemplate = formatTemplate;
+        this.consoleTemplate = consoleTemplate;
     }
 
     public String getId() {
@@ -58,6 +66,14 @@ public class ChatChannel {
         return consoleFormat;
     }
 
+    public MessageTemplate getFormatTemplate() {
+        return formatTemplate;
+    }
+
+    public MessageTemplate getConsoleTemplate() {
+        return consoleTemplate;
+    }
+
     public boolean isLogToFile() {
         return logToFile;
     }
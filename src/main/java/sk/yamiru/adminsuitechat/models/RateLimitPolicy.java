@@ -0,0 +1,98 @@
+package sk.yamiru.adminsuitechat.models;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Immutable anti-spam limits (anti-spam section), swapped as a whole on reload
+ * Token amounts are in thousandths of a message so fractional refill rates work
+ */
+public final class RateLimitPolicy {
+
+    public static final long TOKEN = 1000;
+    // Largest milli-token count the packed bucket state can hold
+    public static final long MAX_TOKENS = (1L << 24) - 1;
+
+    public static final RateLimitPolicy DEFAULT = new RateLimitPolicy(true, 3, 3, 5);
+
+    private final boolean enabled;
+    private final double burst;
+    private final double refillPerSecond;
+    private final int blockSeconds;
+    private final long capacity;
+    private final long blockMillis;
+
+    public RateLimitPolicy(boolean enabled, double burst, double refillPerSecond, int blockSeconds) {
+        this.enabled = enabled;
+        this.capacity = Math.max(TOKEN, Math.min(MAX_TOKENS, (long) (burst * TOKEN)));
+        this.burst = capacity / (double) TOKEN;
+        this.refillPerSecond = Math.max(0, refillPerSecond);
+        this.blockSeconds = Math.max(0, blockSeconds);
+        this.blockMillis = this.blockSeconds * 1000L;
+    }
+
+    /**
+     * Read the anti-spam section, settings.anti-spam is still accepted for older configs
+     */
+    public static RateLimitPolicy load(FileConfiguration config) {
+        ConfigurationSection section = config.getConfigurationSection("anti-spam");
+        if (section == null) {
+            section = config.getConfigurationSection("settings.anti-spam");
+        }
+        if (section == null) {
+            return DEFAULT;
+        }
+
+        int maxMessagesPerSecond = section.getInt("max-messages-per-second", 3);
+        return new RateLimitPolicy(
+                section.getBoolean("enabled", true),
+                section.getDouble("burst", maxMessagesPerSecond),
+                section.getDouble("refill-per-second", maxMessagesPerSecond),
+                section.getInt("block-duration-seconds", 5));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Messages allowed at once
+     */
+    public double getBurst() {
+        return burst;
+    }
+
+    /**
+     * Sustained messages per second
+     */
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public int getBlockSeconds() {
+        return blockSeconds;
+    }
+
+    /**
+     * Bucket size in milli-tokens
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Milli-tokens per millisecond, numerically the same as messages per second
+     */
+    public double getRefillPerMilli() {
+        return refillPerSecond;
+    }
+
+    public long getBlockMillis() {
+        return blockMillis;
+    }
+
+    @Override
+    public String toString() {
+        return (enabled ? "" : "disabled, ") + "burst " + burst + ", refill " + refillPerSecond + "/s, block " + blockSeconds + "s";
+    }
+}
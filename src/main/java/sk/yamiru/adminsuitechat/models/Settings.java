@@ -0,0 +1,270 @@
+package sk.yamiru.adminsuitechat.models;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import sk.yamiru.adminsuitechat.utils.MessageTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of config.yml values used while handling messages
+ * Built on enable and reload and published as a whole, so chat threads never read the YAML tree
+ */
+public final class Settings {
+
+    private final boolean debug;
+    private final boolean trace;
+    private final int traceSize;
+    private final boolean usePlaceholderAPI;
+    private final int placeholderCacheSeconds;
+    private final RateLimitPolicy antiSpam;
+    private final Duplicates duplicates;
+    private final boolean consoleLogging;
+    private final Map<String, HelpMe> helpMe;
+    private final Map<String, HelpMe> helpMeByCommand;
+
+    private Settings(FileConfiguration config) {
+        this.debug = config.getBoolean("settings.debug", false);
+        this.trace = config.getBoolean("settings.trace.enabled", false);
+        this.traceSize = config.getInt("settings.trace.size", 64);
+        this.usePlaceholderAPI = config.getBoolean("settings.use-placeholderapi", true);
+        this.placeholderCacheSeconds = config.getInt("settings.placeholder-cache.ttl-seconds", 30);
+        this.consoleLogging = config.getBoolean("logging.console.enabled", true);
+        this.antiSpam = RateLimitPolicy.load(config);
+        this.duplicates = new Duplicates(config.getConfigurationSection("anti-spam.duplicates"));
+
+        Map<String, HelpMe> helpMe = new LinkedHashMap<>();
+        ConfigurationSection helpMeSection = config.getConfigurationSection("helpme");
+        if (helpMeSection != null) {
+            for (String id : helpMeSection.getKeys(false)) {
+                ConfigurationSection section = helpMeSection.getConfigurationSection(id);
+                if (section != null) {
+                    helpMe.put(id, new HelpMe(id, section));
+                }
+            }
+        }
+        this.helpMe = Collections.unmodifiableMap(helpMe);
+
+        Map<String, HelpMe> helpMeByCommand = new LinkedHashMap<>();
+        for (HelpMe queue : helpMe.values()) {
+            helpMeByCommand.putIfAbsent(queue.getCommand(), queue);
+        }
+        this.helpMeByCommand = Collections.unmodifiableMap(helpMeByCommand);
+    }
+
+    public static Settings load(FileConfiguration config) {
+        return new Settings(config);
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Keep recent debug events per player and channel in memory (settings.trace)
+     */
+    public boolean isTrace() {
+        return trace;
+    }
+
+    public int getTraceSize() {
+        return traceSize;
+    }
+
+    public boolean isUsePlaceholderAPI() {
+        return usePlaceholderAPI;
+    }
+
+    /**
+     * How long resolved placeholder values are reused, 0 = resolve on every message
+     */
+    public int getPlaceholderCacheSeconds() {
+        return placeholderCacheSeconds;
+    }
+
+    /**
+     * Channel messages are echoed to console (logging.console.enabled)
+     */
+    public boolean isConsoleLogging() {
+        return consoleLogging;
+    }
+
+    public RateLimitPolicy getAntiSpam() {
+        return antiSpam;
+    }
+
+    public Duplicates getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * HelpMe settings by id (helpme1, helpme2, ...), defaults when the id is not configured
+     */
+    public HelpMe getHelpMe(String id) {
+        HelpMe settings = helpMe.get(id);
+        return settings != null ? settings : HelpMe.defaults(id);
+    }
+
+    public Map<String, HelpMe> getHelpMeQueues() {
+        return helpMe;
+    }
+
+    /**
+     * HelpMe queue handling a command (/helpme -> helpme1, /helpme2 -> helpme2), null when no queue uses it
+     */
+    public HelpMe getHelpMeByCommand(String command) {
+        return helpMeByCommand.get(command.toLowerCase());
+    }
+
+    /**
+     * Repeated message detection (anti-spam.duplicates), all defaults when the section is missing
+     */
+    public static final class Duplicates {
+        private final boolean enabled;
+        private final boolean block;
+        private final int history;
+        private final int maxDistance;
+        private final long windowMillis;
+        private final int minLength;
+
+        private Duplicates(ConfigurationSection section) {
+            this.enabled = section == null || section.getBoolean("enabled", true);
+            this.block = section == null || !section.getString("action", "block").equalsIgnoreCase("flag");
+            this.history = Math.max(1, Math.min(64, section != null ? section.getInt("history", 8) : 8));
+            this.maxDistance = Math.max(0, Math.min(64, section != null ? section.getInt("max-distance", 3) : 3));
+            this.windowMillis = Math.max(0, section != null ? section.getInt("window-seconds", 300) : 300) * 1000L;
+            this.minLength = section != null ? section.getInt("min-length", 12) : 12;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Block repeated messages, otherwise they are let through and reported
+         */
+        public boolean isBlock() {
+            return block;
+        }
+
+        /**
+         * Fingerprints kept per player
+         */
+        public int getHistory() {
+            return history;
+        }
+
+        /**
+         * Differing fingerprint bits that still count as the same message
+         */
+        public int getMaxDistance() {
+            return maxDistance;
+        }
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+
+        /**
+         * Shorter messages are never checked
+         */
+        public int getMinLength() {
+            return minLength;
+        }
+    }
+
+    /**
+     * Settings of one HelpMe queue (helpme.<id>)
+     */
+    public static final class HelpMe {
+        private final String id;
+        private final String command;
+        private final boolean enabled;
+        private final int cooldownSeconds;
+        private final boolean allowBypass;
+        private final int maxMessageLength;
+        private final boolean logRequests;
+        private final MessageTemplate formatTemplate;
+        private final MessageTemplate consoleTemplate;
+
+        private HelpMe(String id, ConfigurationSection section) {
+            this.id = id;
+            this.command = section.getString("command", defaultCommand(id)).toLowerCase();
+            this.enabled = section.getBoolean("enabled", true);
+            this.cooldownSeconds = section.getInt("cooldown-seconds", 60);
+            this.allowBypass = section.getBoolean("allow-bypass", true);
+            this.maxMessageLength = section.getInt("max-message-length", 256);
+            this.logRequests = section.getBoolean("log-requests", false);
+
+            String prefix = section.getString("prefix", "&c&l[HELP]&r");
+            String format = section.getString("format", "{prefix} &7{player} needs help: &f{message}");
+            this.formatTemplate = MessageTemplate.compile(format.replace("{prefix}", prefix));
+            this.consoleTemplate = MessageTemplate.compile(section.getString("console-format", "&4[HELPME]&r {player}: {message}"));
+        }
+
+        private HelpMe(String id) {
+            this.id = id;
+            this.command = defaultCommand(id);
+            this.enabled = true;
+            this.cooldownSeconds = 60;
+            this.allowBypass = true;
+            this.maxMessageLength = 256;
+            this.logRequests = false;
+            this.formatTemplate = MessageTemplate.compile("&c&l[HELP]&r &7{player} needs help: &f{message}");
+            this.consoleTemplate = MessageTemplate.compile("&4[HELPME]&r {player}: {message}");
+        }
+
+        private static HelpMe defaults(String id) {
+            return new HelpMe(id);
+        }
+
+        // helpme1 has always been /helpme, other queues are named after their id
+        private static String defaultCommand(String id) {
+            return id.equals("helpme1") ? "helpme" : id.toLowerCase();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Command name without slash
+         */
+        public String getCommand() {
+            return command;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getCooldownSeconds() {
+            return cooldownSeconds;
+        }
+
+        public boolean isAllowBypass() {
+            return allowBypass;
+        }
+
+        public int getMaxMessageLength() {
+            return maxMessageLength;
+        }
+
+        public boolean isLogRequests() {
+            return logRequests;
+        }
+
+        /**
+         * Compiled format with the prefix inlined
+         */
+        public MessageTemplate getFormatTemplate() {
+            return formatTemplate;
+        }
+
+        public MessageTemplate getConsoleTemplate() {
+            return consoleTemplate;
+        }
+    }
+}
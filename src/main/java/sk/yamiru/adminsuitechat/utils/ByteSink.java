@@ -0,0 +1,217 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable growable byte buffer with direct UTF-8 encoding
+ * Text is encoded char by char into the backing array, no intermediate String or byte[] is created
+ */
+public final class ByteSink {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] data;
+    private int size;
+    private ByteBuffer view;
+
+    public ByteSink(int initialCapacity) {
+        this.data = new byte[Math.max(16, initialCapacity)];
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            view = null;
+        }
+    }
+
+    public void write(int b) {
+        ensureCapacity(1);
+        data[size++] = (byte) b;
+    }
+
+    public void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * ASCII-only text (keys, separators), one byte per char
+     */
+    public void writeAscii(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            data[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    public void writeUtf8(CharSequence text) {
+        writeUtf8(text, 0, text.length());
+    }
+
+    public void writeUtf8(CharSequence text, int start, int end) {
+        // Worst case 3 bytes per char (surrogate pairs take 4 bytes for 2 chars)
+        ensureCapacity((end - start) * 3);
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                data[size++] = (byte) c;
+            } else if (c < 0x800) {
+                data[size++] = (byte) (0xC0 | (c >> 6));
+                data[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                data[size++] = (byte) (0xF0 | (codePoint >> 18));
+                data[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                data[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                data[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate cannot be encoded
+                data[size++] = '?';
+            } else {
+                data[size++] = (byte) (0xE0 | (c >> 12));
+                data[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                data[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Cut UTF-8 text written from start to at most maxBytes, never inside a multi-byte sequence
+     *
+     * @return length of the text after cutting
+     */
+    public int truncateUtf8(int start, int maxBytes) {
+        if (size - start <= maxBytes) {
+            return size - start;
+        }
+
+        int end = start + maxBytes;
+        // Back off continuation bytes (10xxxxxx) so the cut lands on the start of a code point
+        while (end > start && (data[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        size = end;
+        return end - start;
+    }
+
+    /**
+     * UTF-8 encoded JSON string literal including quotes
+     */
+    public void writeJsonString(CharSequence text) {
+        write('"');
+        int length = text.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+
+            writeUtf8(text, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"' -> writeAscii("\\\"");
+                case '\\' -> writeAscii("\\\\");
+                case '\n' -> writeAscii("\\n");
+                case '\r' -> writeAscii("\\r");
+                case '\t' -> writeAscii("\\t");
+                default -> {
+                    writeAscii("\\u00");
+                    write(HEX[c >> 4]);
+                    write(HEX[c & 0xF]);
+                }
+            }
+        }
+
+        writeUtf8(text, start, length);
+        write('"');
+    }
+
+    public void writeDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            data[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        data[size++] = (byte) (value >>> 8);
+        data[size++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        putInt(size, value);
+        size += 4;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    /**
+     * Overwrite 2 bytes at position, used to back-patch length prefixes
+     */
+    public void setShort(int position, int value) {
+        data[position] = (byte) (value >>> 8);
+        data[position + 1] = (byte) value;
+    }
+
+    public void setInt(int position, int value) {
+        putInt(position, value);
+    }
+
+    private void putInt(int position, int value) {
+        data[position] = (byte) (value >>> 24);
+        data[position + 1] = (byte) (value >>> 16);
+        data[position + 2] = (byte) (value >>> 8);
+        data[position + 3] = (byte) value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Buffer over the written bytes, the wrapper is reused while the backing array stays the same
+     */
+    public ByteBuffer toByteBuffer() {
+        if (view == null) {
+            view = ByteBuffer.wrap(data);
+        }
+        view.clear();
+        view.limit(size);
+        return view;
+    }
+}
@@ -0,0 +1,99 @@
+package sk.yamiru.adminsuitechat.utils;
+
+/**
+ * Sanitizer for player chat input shared by shortcuts, channel commands and /helpme
+ * Strips color codes, removes slashes, truncates and collapses repeated special characters in one scan
+ */
+public final class MessageSanitizer {
+
+    public static final int MAX_MESSAGE_LENGTH = 256;
+
+    // Longest allowed run of the same special character
+    private static final int MAX_REPEAT = 3;
+    private static final String SPECIAL_CHARACTERS = "!@#$%^&*()_+=[]{}|;:'\",.<>?/\\`~-";
+
+    private MessageSanitizer() {
+    }
+
+    /**
+     * Sanitize with the default length limit
+     */
+    public static String sanitize(String message) {
+        return sanitize(message, MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * Sanitize player input, the same instance is returned when nothing has to change
+     * Same result as stripping "&[0-9a-fk-or]", removing '/' and '\', truncating to maxLength,
+     * collapsing runs of 4+ identical special characters to 3 and trimming, in that order
+     *
+     * @param maxLength length limit applied before collapsing, 0 for none
+     */
+    public static String sanitize(String message, int maxLength) {
+        int length = message.length();
+        // Output is only created at the first change
+        StringBuilder out = null;
+        // Characters that survived stripping, counted against the length limit
+        int kept = 0;
+        char runChar = 0;
+        int runLength = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            boolean colorCode = c == '&' && i + 1 < length && isColorCode(message.charAt(i + 1));
+            boolean drop;
+
+            if (colorCode || c == '/' || c == '\\') {
+                drop = true;
+            } else if (maxLength > 0 && kept >= maxLength) {
+                if (out == null) {
+                    out = new StringBuilder(length).append(message, 0, i);
+                }
+                break;
+            } else {
+                kept++;
+                if (c == runChar) {
+                    runLength++;
+                } else {
+                    runChar = c;
+                    runLength = 1;
+                }
+                drop = runLength > MAX_REPEAT && isSpecial(c);
+            }
+
+            if (drop) {
+                if (out == null) {
+                    out = new StringBuilder(length).append(message, 0, i);
+                }
+                if (colorCode) {
+                    i++;
+                }
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+
+        if (out == null) {
+            // trim() returns the same instance when there is no surrounding whitespace
+            return message.trim();
+        }
+
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(start, end);
+    }
+
+    private static boolean isColorCode(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'k' && c <= 'o') || c == 'r';
+    }
+
+    private static boolean isSpecial(char c) {
+        return SPECIAL_CHARACTERS.indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,150 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Channel format compiled once into colorized literals and slots ({player}, {message}, %papi% tokens)
+ * Rendering appends the segments into one pre-sized builder, player input is inserted as-is
+ */
+public final class MessageTemplate {
+
+    private static final byte LITERAL = 0;
+    private static final byte PLAYER = 1;
+    private static final byte MESSAGE = 2;
+    private static final byte PLACEHOLDER = 3;
+
+    // Rough size reserved per PlaceholderAPI token when pre-sizing output
+    private static final int PLACEHOLDER_SIZE_HINT = 16;
+
+    private final byte[] kinds;
+    // Colorized literal, or the PlaceholderAPI token including its % signs
+    private final String[] texts;
+    private final int literalLength;
+    private final int playerSlots;
+    private final int messageSlots;
+    private final int placeholderSlots;
+
+    private MessageTemplate(List<Byte> kinds, List<String> texts) {
+        this.kinds = new byte[kinds.size()];
+        this.texts = texts.toArray(new String[0]);
+
+        int literals = 0, players = 0, messages = 0, placeholders = 0;
+        for (int i = 0; i < this.kinds.length; i++) {
+            byte kind = kinds.get(i);
+            this.kinds[i] = kind;
+            switch (kind) {
+                case LITERAL -> literals += this.texts[i].length();
+                case PLAYER -> players++;
+                case MESSAGE -> messages++;
+                default -> placeholders++;
+            }
+        }
+
+        this.literalLength = literals;
+        this.playerSlots = players;
+        this.messageSlots = messages;
+        this.placeholderSlots = placeholders;
+    }
+
+    /**
+     * Compile format with &-color codes, {player}, {message} and %placeholder% tokens
+     * Other text (including unknown {tags}) is kept as literal
+     */
+    public static MessageTemplate compile(String format) {
+        List<Byte> kinds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = format.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = format.charAt(i);
+            byte slot = -1;
+            int end = i;
+
+            if (c == '{') {
+                if (format.startsWith("{player}", i)) {
+                    slot = PLAYER;
+                    end = i + "{player}".length();
+                } else if (format.startsWith("{message}", i)) {
+                    slot = MESSAGE;
+                    end = i + "{message}".length();
+                }
+            } else if (c == '%') {
+                int close = placeholderEnd(format, i);
+                if (close > 0) {
+                    slot = PLACEHOLDER;
+                    end = close + 1;
+                }
+            }
+
+            if (slot < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            if (literal.length() > 0) {
+                kinds.add(LITERAL);
+                texts.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+                literal.setLength(0);
+            }
+            kinds.add(slot);
+            texts.add(slot == PLACEHOLDER ? format.substring(i, end) : null);
+            i = end;
+        }
+
+        if (literal.length() > 0) {
+            kinds.add(LITERAL);
+            texts.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+        }
+
+        return new MessageTemplate(kinds, texts);
+    }
+
+    /**
+     * Closing % of a placeholder token starting at start, or -1 ("100% sure" is not a token)
+     */
+    private static int placeholderEnd(String format, int start) {
+        for (int i = start + 1; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (c == '%') {
+                return i > start + 1 ? i : -1;
+            }
+            if (Character.isWhitespace(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasPlaceholders() {
+        return placeholderSlots > 0;
+    }
+
+    /**
+     * Render message
+     *
+     * @param placeholders resolves a %token% to its colorized value, null leaves tokens as written
+     */
+    public String render(String playerName, String message, UnaryOperator<String> placeholders) {
+        StringBuilder out = new StringBuilder(literalLength
+                + playerSlots * playerName.length()
+                + messageSlots * message.length()
+                + placeholderSlots * PLACEHOLDER_SIZE_HINT);
+
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case LITERAL -> out.append(texts[i]);
+                case PLAYER -> out.append(playerName);
+                case MESSAGE -> out.append(message);
+                default -> out.append(placeholders != null ? placeholders.apply(texts[i]) : texts[i]);
+            }
+        }
+        return out.toString();
+    }
+}
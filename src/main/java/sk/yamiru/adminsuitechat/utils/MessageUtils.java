@@ -5,11 +5,14 @@ import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import sk.yamiru.adminsuitechat.AdminSuiteChat;
+import sk.yamiru.adminsuitechat.managers.PlaceholderCache;
+import sk.yamiru.adminsuitechat.models.ChatChannel;
 
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
 
 public class MessageUtils {
 
@@ -59,28 +62,33 @@ public class MessageUtils {
         return ChatColor.translateAlternateColorCodes('&', message);
     }
 
-    public String formatMessage(Player player, String format, String prefix, String message) {
-        String formatted = format
-                .replace("{prefix}", colorize(prefix))
-                .replace("{player}", player.getName())
-                .replace("{message}", message);
+    /**
+     * Render channel format for players, PlaceholderAPI only resolves tokens of the format itself
+     */
+    public String formatMessage(Player player, ChatChannel channel, String message) {
+        return formatMessage(player, channel.getId(), channel.getFormatTemplate(), message);
+    }
 
+    /**
+     * @param scope channel or helpme id, resolved placeholders are cached per player and scope
+     */
+    public String formatMessage(Player player, String scope, MessageTemplate template, String message) {
         // Apply PlaceholderAPI if available
-        if (plugin.isPlaceholderAPIEnabled()) {
-            formatted = PlaceholderAPI.setPlaceholders(player, formatted);
+        UnaryOperator<String> placeholders = null;
+        if (plugin.isPlaceholderAPIEnabled() && template.hasPlaceholders()) {
+            UnaryOperator<String> resolver = token -> colorize(PlaceholderAPI.setPlaceholders(player, token));
+            PlaceholderCache cache = plugin.getPlaceholderCache();
+            placeholders = token -> cache.resolve(player, scope, token, resolver);
         }
 
-        return colorize(formatted);
+        return template.render(player.getName(), message, placeholders);
     }
 
-    public String formatConsoleMessage(String format, String playerName, String message) {
-        String formatted = format
-                .replace("{player}", playerName)
-                .replace("{message}", message);
-        
-        // For console, keep Minecraft colors but they'll be stripped by logger
-        // This allows the format to work but outputs plain text
-        return ChatColor.stripColor(colorize(formatted));
+    /**
+     * Render channel console format (colors are kept or stripped by consoleMessage)
+     */
+    public String formatConsoleMessage(ChatChannel channel, String playerName, String message) {
+        return channel.getConsoleTemplate().render(playerName, message, null);
     }
 
     public String getMessage(String path) {
@@ -0,0 +1,223 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream that deflates fixed-size blocks concurrently
+ * Every block becomes a complete gzip member, concatenated members are standard gzip (RFC 1952)
+ * so the result stays readable by gzip, tar xzf and GZIPInputStream
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final byte[] MEMBER_HEADER = {
+            0x1f, (byte) 0x8b,  // magic
+            8,                  // deflate
+            0,                  // flags
+            0, 0, 0, 0,         // mtime
+            0,                  // extra flags
+            (byte) 255          // OS unknown
+    };
+
+    private final OutputStream out;
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxInFlight;
+    private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+    private final Deque<Long> inFlightOffsets = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private long uncompressedOffset;
+    private long compressedOffset;
+    private MemberListener memberListener;
+    private boolean wroteMember;
+    private boolean closed;
+
+    /**
+     * @param threads deflate threads, 0 or less uses all available processors
+     * @param level   compression level 1-9 (-1 for zlib default)
+     */
+    public ParallelGzipOutputStream(OutputStream out, int threads, int level) {
+        this(out, threads, level, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ParallelGzipOutputStream(OutputStream out, int threads, int level, int blockSize) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.out = out;
+        this.pool = new ForkJoinPool(poolSize);
+        this.level = level;
+        this.blockSize = blockSize;
+        // Bounded number of pending blocks keeps memory constant regardless of input size
+        this.maxInFlight = poolSize * 2;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            int chunk = Math.min(length, blockSize - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, chunk);
+            blockLength += chunk;
+            offset += chunk;
+            length -= chunk;
+
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Hand the current block to the pool and start a new one
+     */
+    private void submitBlock() throws IOException {
+        byte[] input = block;
+        int length = blockLength;
+        inFlight.addLast(pool.submit(() -> compressMember(input, length, level)));
+        inFlightOffsets.addLast(uncompressedOffset);
+        uncompressedOffset += length;
+        wroteMember = true;
+
+        block = new byte[blockSize];
+        blockLength = 0;
+
+        while (inFlight.size() >= maxInFlight) {
+            writeOldestMember();
+        }
+    }
+
+    /**
+     * Members are written in submission order, so output order equals input order
+     */
+    private void writeOldestMember() throws IOException {
+        Future<byte[]> future = inFlight.removeFirst();
+        long memberOffset = inFlightOffsets.removeFirst();
+        try {
+            byte[] member = future.get();
+            if (memberListener != null) {
+                memberListener.onMember(memberOffset, compressedOffset);
+            }
+            out.write(member);
+            compressedOffset += member.length;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Compression failed", e.getCause());
+        }
+    }
+
+    /**
+     * Build one complete gzip member: header, raw deflate data, CRC32 and size trailer
+     */
+    private static byte[] compressMember(byte[] input, int length, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+            member.write(MEMBER_HEADER, 0, MEMBER_HEADER.length);
+
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                member.write(buffer, 0, count);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(input, 0, length);
+            writeIntLE(member, (int) crc.getValue());
+            writeIntLE(member, length);
+
+            return member.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        out.write((value >>> 16) & 0xFF);
+        out.write((value >>> 24) & 0xFF);
+    }
+
+    /**
+     * Receive member start offsets, so readers can seek into the stream without inflating it all
+     */
+    public void setMemberListener(MemberListener memberListener) {
+        this.memberListener = memberListener;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Compress remaining data and write all pending members
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+
+        // An empty stream still needs one (empty) member to be valid gzip
+        if (blockLength > 0 || !wroteMember) {
+            submitBlock();
+        }
+
+        while (!inFlight.isEmpty()) {
+            writeOldestMember();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+
+        try {
+            finish();
+        } finally {
+            closed = true;
+            pool.shutdownNow();
+            out.close();
+        }
+    }
+
+    /**
+     * Called in output order for every gzip member written
+     */
+    @FunctionalInterface
+    public interface MemberListener {
+        void onMember(long uncompressedOffset, long compressedOffset);
+    }
+}
@@ -0,0 +1,96 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.util.Arrays;
+
+/**
+ * Prefix trie for channel shortcuts ("@a", "@ad", ...)
+ * Resolves the longest shortcut a chat message starts with in one pass over its leading characters
+ * Built once per channel reload and only read afterwards, lookups do not allocate
+ */
+public final class ShortcutTrie<T> {
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    /**
+     * Add shortcut, the first value added for a shortcut is kept
+     */
+    public void put(String shortcut, T value) {
+        if (shortcut == null || shortcut.isEmpty() || value == null) return;
+
+        Node<T> node = root;
+        for (int i = 0; i < shortcut.length(); i++) {
+            node = node.childOrCreate(shortcut.charAt(i));
+        }
+
+        if (node.value == null) {
+            node.value = value;
+            size++;
+        }
+    }
+
+    /**
+     * Longest shortcut the message starts with, followed by a space ("@a hi") or by at least
+     * two more characters ("@ahi"), or null when no shortcut applies
+     */
+    public T match(String message) {
+        Node<T> node = root;
+        T best = null;
+        int length = message.length();
+
+        for (int i = 0; i < length; i++) {
+            node = node.child(message.charAt(i));
+            if (node == null) break;
+
+            int end = i + 1;
+            if (node.value != null && end < length && (message.charAt(end) == ' ' || end + 1 < length)) {
+                best = node.value;
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static final class Node<T> {
+        private static final char[] NO_KEYS = new char[0];
+
+        // Sorted keys with matching children, chat messages only ever walk a few levels
+        private char[] keys = NO_KEYS;
+        private Node<T>[] children;
+        private T value;
+
+        Node<T> child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node<T> childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insert = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            // Generic arrays cannot be created, the raw array only ever holds Node<T>
+            @SuppressWarnings("unchecked")
+            Node<T>[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            if (children != null) {
+                System.arraycopy(children, 0, newChildren, 0, insert);
+                System.arraycopy(children, insert, newChildren, insert + 1, keys.length - insert);
+            }
+
+            Node<T> child = new Node<>();
+            newKeys[insert] = c;
+            newChildren[insert] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
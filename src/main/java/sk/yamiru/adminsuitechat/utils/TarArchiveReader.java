@@ -0,0 +1,162 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming TAR reader, counterpart of TarArchiveWriter
+ * Entries are visited in order, skipped content is never buffered
+ */
+public class TarArchiveReader implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private final byte[] skipBuffer = new byte[8192];
+    private Entry current;
+    private long remaining;
+    private long padding;
+
+    public TarArchiveReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Advance to next entry, skipping unread content of the current one
+     *
+     * @return next entry or null at end of archive
+     */
+    public Entry nextEntry() throws IOException {
+        skipFully(remaining + padding);
+        remaining = 0;
+        padding = 0;
+
+        if (!readBlock()) {
+            return null;
+        }
+
+        // Empty block marks end of archive
+        boolean empty = true;
+        for (byte b : header) {
+            if (b != 0) {
+                empty = false;
+                break;
+            }
+        }
+        if (empty) {
+            return null;
+        }
+
+        String name = readString(0, 100);
+        long size = readOctal(124, 12);
+        long mtime = readOctal(136, 12);
+
+        current = new Entry(name, size, mtime * 1000L);
+        remaining = size;
+        padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+        return current;
+    }
+
+    /**
+     * Content of current entry, bounded to its size
+     */
+    public InputStream getEntryStream() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) return -1;
+                int b = in.read();
+                if (b >= 0) remaining--;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                if (remaining <= 0) return -1;
+                int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+                if (read > 0) remaining -= read;
+                return read;
+            }
+        };
+    }
+
+    private boolean readBlock() throws IOException {
+        int total = 0;
+        while (total < BLOCK_SIZE) {
+            int read = in.read(header, total, BLOCK_SIZE - total);
+            if (read < 0) {
+                if (total == 0) return false;
+                throw new EOFException("Truncated TAR header");
+            }
+            total += read;
+        }
+        return true;
+    }
+
+    private void skipFully(long count) throws IOException {
+        while (count > 0) {
+            int read = in.read(skipBuffer, 0, (int) Math.min(skipBuffer.length, count));
+            if (read < 0) {
+                throw new EOFException("Truncated TAR entry");
+            }
+            count -= read;
+        }
+    }
+
+    private String readString(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private long readOctal(int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value != 0) break;
+                continue;
+            }
+            value = (value << 3) + (b - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * TAR entry header
+     */
+    public static final class Entry {
+        private final String name;
+        private final long size;
+        private final long lastModified;
+
+        public Entry(String name, long size, long lastModified) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming TAR (ustar compatible) writer
+ * Files are copied in fixed-size chunks, so memory use does not depend on file size
+ */
+public class TarArchiveWriter implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private final byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+    private long bytesWritten;
+    private long contentBytes;
+    private boolean finished;
+
+    public TarArchiveWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Append file to archive under its own file name
+     *
+     * @return offset of the file content within the uncompressed TAR stream
+     */
+    public long putFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Size is fixed at header time, content appended later is not archived
+            long size = channel.size();
+            long mtime = Files.getLastModifiedTime(file).toMillis() / 1000;
+
+            writeHeader(file.getFileName().toString(), size, mtime);
+            long dataOffset = bytesWritten;
+
+            ByteBuffer buffer = ByteBuffer.wrap(copyBuffer);
+            long remaining = size;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                out.write(copyBuffer, 0, read);
+                remaining -= read;
+            }
+
+            // File shrank while archiving - keep the entry consistent with its header
+            while (remaining > 0) {
+                int chunk = (int) Math.min(remaining, copyBuffer.length);
+                Arrays.fill(copyBuffer, 0, chunk, (byte) 0);
+                out.write(copyBuffer, 0, chunk);
+                remaining -= chunk;
+            }
+
+            // Pad to 512-byte boundary
+            int remainder = (int) (size % BLOCK_SIZE);
+            if (remainder != 0) {
+                writeZeros(BLOCK_SIZE - remainder);
+            }
+
+            bytesWritten += size;
+            contentBytes += size;
+            return dataOffset;
+        }
+    }
+
+    /**
+     * Create TAR header (512 bytes)
+     */
+    private void writeHeader(String fileName, long size, long mtime) throws IOException {
+        Arrays.fill(header, (byte) 0);
+
+        // File name (offset 0, length 100)
+        byte[] nameBytes = fileName.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+
+        // File mode, owner ID, group ID (offset 100, 108, 116 - length 8)
+        putAscii("0000644\0", 100);
+        putAscii("0000000\0", 108);
+        putAscii("0000000\0", 116);
+
+        // File size and modification time in octal (offset 124, 136 - length 12)
+        putAscii(String.format("%011o\0", size), 124);
+        putAscii(String.format("%011o\0", mtime), 136);
+
+        // Checksum placeholder (offset 148, length 8) - fill with spaces first
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+
+        // Type flag (offset 156, length 1) - '0' for regular file
+        header[156] = '0';
+
+        // ustar magic and version (offset 257, 263)
+        putAscii("ustar\0", 257);
+        putAscii("00", 263);
+
+        int checksum = 0;
+        for (byte b : header) {
+            checksum += (b & 0xFF);
+        }
+        putAscii(String.format("%06o\0 ", checksum), 148);
+
+        out.write(header);
+        bytesWritten += BLOCK_SIZE;
+    }
+
+    private void putAscii(String value, int offset) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private void writeZeros(int count) throws IOException {
+        Arrays.fill(copyBuffer, 0, count, (byte) 0);
+        out.write(copyBuffer, 0, count);
+        bytesWritten += count;
+    }
+
+    /**
+     * Write two empty 512-byte blocks to mark end of archive
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        finished = true;
+        writeZeros(BLOCK_SIZE * 2);
+    }
+
+    /**
+     * Uncompressed file content archived so far
+     */
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Total uncompressed TAR stream size so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel for expiring per-player state, ticked by its own thread
+ * Scheduling is O(1), each tick only visits one slot; delays longer than a turn wait for later rounds in their slot
+ * Tasks run on the wheel thread and should be short (typically a conditional map remove)
+ */
+public class TimerWheel {
+
+    private static final int SLOTS = 512;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Logger logger;
+    private final List<List<Timeout>> slots = new ArrayList<>(SLOTS);
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long currentTick;
+    private ScheduledExecutorService executor;
+
+    public TimerWheel(long tickMillis, Logger logger) {
+        this.tickMillis = tickMillis;
+        this.logger = logger;
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public synchronized void start() {
+        if (executor != null) return;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AdminSuiteChat-Expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop ticking, pending tasks are dropped
+     */
+    public synchronized void shutdown() {
+        if (executor == null) return;
+
+        executor.shutdownNow();
+        executor = null;
+        for (List<Timeout> slot : slots) {
+            synchronized (slot) {
+                slot.clear();
+            }
+        }
+        pending.set(0);
+    }
+
+    /**
+     * Run task once the delay has passed, at most two ticks late (safe from any thread)
+     */
+    public void schedule(long delayMillis, Runnable task) {
+        // One extra tick, the current tick is already partly over
+        long ticks = (delayMillis + tickMillis - 1) / tickMillis + 1;
+        // Racing with a tick can only delay the entry by one turn, it never fires early
+        long deadline = currentTick + ticks;
+        List<Timeout> slot = slots.get((int) (deadline & MASK));
+        synchronized (slot) {
+            slot.add(new Timeout(deadline, task));
+        }
+        pending.incrementAndGet();
+    }
+
+    private void tick() {
+        long tick = ++currentTick;
+        List<Timeout> slot = slots.get((int) (tick & MASK));
+
+        List<Timeout> due = null;
+        synchronized (slot) {
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                Timeout timeout = slot.get(i);
+                if (timeout.deadline <= tick) {
+                    if (due == null) due = new ArrayList<>();
+                    due.add(timeout);
+                    // Order within a slot does not matter, swap-remove keeps this O(1)
+                    int last = slot.size() - 1;
+                    slot.set(i, slot.get(last));
+                    slot.remove(last);
+                }
+            }
+        }
+        if (due == null) return;
+
+        pending.addAndGet(-due.size());
+        for (Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                logger.warning("Expiry task failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Scheduled tasks not run yet
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.junit.jupiter.api.Test;
+import sk.yamiru.adminsuitechat.utils.TimerWheel;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownManagerTest {
+
+    private static final Logger LOGGER = Logger.getLogger("CooldownManagerTest");
+
+    @Test
+    void matchesSetModelUnderRandomOperations() {
+        // Wheel is not started, entries only leave through removeCooldown
+        CooldownManager cooldowns = new CooldownManager(new TimerWheel(1000, LOGGER));
+        Set<String> model = new HashSet<>();
+        Random random = new Random(5);
+
+        UUID[] players = new UUID[300];
+        for (int i = 0; i < players.length; i++) {
+            // Shared high bits keep probe runs long, so backward-shift deletes are exercised
+            players[i] = new UUID(42L, random.nextInt(1 << 20));
+        }
+        String[] queues = {"helpme1", "helpme2", "helpme3"};
+
+        for (int step = 0; step < 50_000; step++) {
+            UUID player = players[random.nextInt(players.length)];
+            String queue = queues[random.nextInt(queues.length)];
+            String key = player + "/" + queue;
+
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    cooldowns.setCooldown(player, queue, 3600);
+                    model.add(key);
+                }
+                case 1 -> {
+                    cooldowns.removeCooldown(player, queue);
+                    model.remove(key);
+                }
+                default -> assertEquals(model.contains(key), cooldowns.hasCooldown(player, queue), key);
+            }
+
+            if (step % 1000 == 0) {
+                assertEquals(model.size(), cooldowns.getTrackedCount());
+            }
+        }
+
+        for (UUID player : players) {
+            for (String queue : queues) {
+                assertEquals(model.contains(player + "/" + queue), cooldowns.hasCooldown(player, queue));
+            }
+        }
+        assertEquals(model.size(), cooldowns.getTrackedCount());
+    }
+
+    @Test
+    void remainingTimeAndLazyExpiry() {
+        CooldownManager cooldowns = new CooldownManager(new TimerWheel(1000, LOGGER));
+        UUID player = UUID.randomUUID();
+
+        cooldowns.setCooldown(player, "helpme1", 60);
+        long remaining = cooldowns.getRemainingCooldown(player, "helpme1");
+        assertTrue(remaining >= 59 && remaining <= 60);
+        assertFalse(cooldowns.hasCooldown(player, "helpme2"));
+
+        // A zero cooldown is already over and is removed on lookup
+        cooldowns.setCooldown(player, "helpme2", 0);
+        assertFalse(cooldowns.hasCooldown(player, "helpme2"));
+        assertEquals(1, cooldowns.getTrackedCount());
+
+        cooldowns.clearAll();
+        assertEquals(0, cooldowns.getTrackedCount());
+        assertFalse(cooldowns.hasCooldown(player, "helpme1"));
+    }
+
+    @Test
+    void expiryKeepsNewerCooldown() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(10, LOGGER);
+        wheel.start();
+        try {
+            CooldownManager cooldowns = new CooldownManager(wheel);
+            UUID renewed = UUID.randomUUID();
+            UUID expiring = UUID.randomUUID();
+
+            cooldowns.setCooldown(renewed, "helpme1", 1);
+            cooldowns.setCooldown(expiring, "helpme1", 1);
+            cooldowns.setCooldown(renewed, "helpme1", 3600);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cooldowns.getTrackedCount() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(1, cooldowns.getTrackedCount());
+            assertTrue(cooldowns.hasCooldown(renewed, "helpme1"));
+        } finally {
+            wheel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateDetectorTest {
+
+    @Test
+    void caseSpacingAndPunctuationDoNotChangeFingerprint() {
+        long fingerprint = DuplicateDetector.simHash("can someone help me with my base");
+
+        assertEquals(fingerprint, DuplicateDetector.simHash("CAN someone   help me with my base"));
+        assertEquals(fingerprint, DuplicateDetector.simHash("can someone help me, with my base"));
+        assertEquals(fingerprint, DuplicateDetector.simHash("  can...someone help me with my base"));
+        // Trailing punctuation adds one trigram
+        assertTrue(distance("can someone help me with my base", "can someone help me with my base!!!") <= 8);
+    }
+
+    @Test
+    void nearDuplicatesAreCloserThanUnrelatedMessages() {
+        String message = "please can an admin come to spawn, someone is griefing my house";
+        String edited = "please can an admin come to spawn, somebody is griefing my house";
+        String unrelated = "does anyone know the seed of this world? looking for a village";
+
+        int near = distance(message, edited);
+        int far = distance(message, unrelated);
+
+        assertTrue(near < 16, "near duplicate " + near + " bits apart");
+        assertTrue(far > 16, "unrelated " + far + " bits apart");
+    }
+
+    @Test
+    void shortMessagesStillGetFingerprints() {
+        assertEquals(DuplicateDetector.simHash("hi"), DuplicateDetector.simHash("HI"));
+        assertTrue(DuplicateDetector.simHash("hi") != DuplicateDetector.simHash("ok"));
+    }
+
+    private static int distance(String first, String second) {
+        return Long.bitCount(DuplicateDetector.simHash(first) ^ DuplicateDetector.simHash(second));
+    }
+}
@@ -0,0 +1,59 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogDurabilityTest {
+
+    @Test
+    void parsesAllModes() {
+        assertSame(LogDurability.NONE, LogDurability.parse("none"));
+        assertSame(LogDurability.ALWAYS, LogDurability.parse(" ALWAYS "));
+
+        LogDurability interval = LogDurability.parse("interval: 250");
+        assertEquals(LogDurability.Mode.INTERVAL, interval.getMode());
+        assertEquals(250, interval.getIntervalMs());
+        assertEquals("interval:250", interval.toString());
+
+        LogDurability every = LogDurability.parse("every:100");
+        assertEquals(LogDurability.Mode.EVERY, every.getMode());
+        assertEquals(0, every.getIntervalMs());
+        assertEquals("every:100", every.toString());
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("sometimes"));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("interval:"));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("interval:abc"));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("every:0"));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("every:-5"));
+        assertThrows(IllegalArgumentException.class, () -> LogDurability.parse("weekly:1"));
+    }
+
+    @Test
+    void syncDecisions() {
+        LogDurability interval = LogDurability.parse("interval:1000");
+        assertFalse(interval.shouldSync(10, 999));
+        assertTrue(interval.shouldSync(1, 1000));
+        // Nothing written, nothing to force
+        assertFalse(interval.shouldSync(0, 5000));
+
+        LogDurability every = LogDurability.parse("every:3");
+        assertFalse(every.shouldSync(2, 60_000));
+        assertTrue(every.shouldSync(3, 0));
+
+        assertTrue(LogDurability.ALWAYS.shouldSync(1, 0));
+        assertFalse(LogDurability.NONE.shouldSync(1_000_000, 1_000_000));
+
+        assertFalse(LogDurability.NONE.syncsOnClose());
+        assertTrue(every.syncsOnClose());
+    }
+}
@@ -0,0 +1,158 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.junit.jupiter.api.Test;
+import sk.yamiru.adminsuitechat.utils.ByteSink;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogFormatTest {
+
+    private static final UUID PLAYER_ID = UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+    private static final String MESSAGE = "héllo \"quoted\" back\\slash\ttab\nnew line € 😀 \u0001";
+
+    @Test
+    void binaryRoundTrip() {
+        LogWriter.LogEntry entry = new LogWriter.LogEntry(null, "STAFF", PLAYER_ID, "Admin_1", MESSAGE, 1_700_000_123_456L);
+
+        LogWriter.LogEntry decoded = decodeBinary(encode(LogFormat.BINARY, entry));
+
+        assertNotNull(decoded);
+        assertEquals("STAFF", decoded.getChannel());
+        assertEquals(PLAYER_ID, decoded.getPlayerId());
+        assertEquals("Admin_1", decoded.getPlayerName());
+        assertEquals(MESSAGE, decoded.getMessage());
+        assertEquals(1_700_000_123_456L, decoded.getTimestamp());
+    }
+
+    @Test
+    void binaryWithoutPlayerId() {
+        LogWriter.LogEntry entry = new LogWriter.LogEntry(null, "HELPME", null, "CONSOLE", "", 0L);
+
+        LogWriter.LogEntry decoded = decodeBinary(encode(LogFormat.BINARY, entry));
+
+        assertNotNull(decoded);
+        assertNull(decoded.getPlayerId());
+        assertEquals("", decoded.getMessage());
+    }
+
+    @Test
+    void binaryCutsOversizedShortStringAtCodePoint() {
+        // 1 + 3 * 30000 bytes, the 0xFFFF cut would land inside a 3-byte character
+        String channel = "a" + "€".repeat(30_000);
+        LogWriter.LogEntry entry = new LogWriter.LogEntry(null, channel, PLAYER_ID, "Admin", "after", 5L);
+
+        LogWriter.LogEntry decoded = decodeBinary(encode(LogFormat.BINARY, entry));
+
+        assertNotNull(decoded);
+        String cut = decoded.getChannel();
+        assertTrue(cut.getBytes(StandardCharsets.UTF_8).length <= 0xFFFF);
+        assertTrue(channel.startsWith(cut));
+        assertEquals(1 + (0xFFFF - 1) / 3, cut.length());
+        // Fields after the cut string are still framed correctly
+        assertEquals("Admin", decoded.getPlayerName());
+        assertEquals("after", decoded.getMessage());
+    }
+
+    @Test
+    void binaryRejectsMalformedRecords() {
+        byte[] record = encode(LogFormat.BINARY, new LogWriter.LogEntry(null, "STAFF", null, "Admin", "hi", 1L));
+        int length = record.length - 4;
+
+        assertNull(LogFormat.decodeRecord(record, 4, length - 1));
+        record[4] = 99;
+        assertNull(LogFormat.decodeRecord(record, 4, length));
+    }
+
+    @Test
+    void jsonLinesRoundTrip() {
+        LogWriter.LogEntry entry = new LogWriter.LogEntry(null, "STAFF", PLAYER_ID, "Admin", MESSAGE, 1_700_000_123_456L);
+
+        String line = new String(encode(LogFormat.JSON_LINES, entry), StandardCharsets.UTF_8);
+        assertTrue(line.endsWith("}\n"));
+        // One entry per line, the newline inside the message is escaped
+        assertEquals(line.length() - 1, line.indexOf('\n'));
+
+        LogWriter.LogEntry decoded = LogFormat.JSON_LINES.getLineParser().parse(line.trim());
+        assertNotNull(decoded);
+        assertEquals("STAFF", decoded.getChannel());
+        assertEquals(PLAYER_ID, decoded.getPlayerId());
+        assertEquals("Admin", decoded.getPlayerName());
+        assertEquals(MESSAGE, decoded.getMessage());
+        assertEquals(1_700_000_123_456L, decoded.getTimestamp());
+    }
+
+    @Test
+    void jsonLinesIgnoresUnknownKeysAndRejectsIncompleteObjects() {
+        LogFormat.LineParser parser = LogFormat.JSON_LINES.getLineParser();
+
+        LogWriter.LogEntry decoded = parser.parse(
+                "{\"ts\":5,\"extra\":[1],\"channel\":\"A\",\"player\":\"p\",\"message\":\"m\"}");
+        assertNotNull(decoded);
+        assertEquals("m", decoded.getMessage());
+
+        assertNull(parser.parse("{\"ts\":5,\"channel\":\"A\",\"player\":\"p\"}"));
+        assertNull(parser.parse("{\"ts\":5,\"channel\":\"A\""));
+        assertNull(parser.parse("not json"));
+    }
+
+    @Test
+    void textRoundTrip() {
+        long timestamp = 1_700_000_123_000L;
+        LogWriter.LogEntry entry = new LogWriter.LogEntry(null, "STAFF", PLAYER_ID, "Admin", "hello: world", timestamp);
+
+        String line = new String(encode(LogFormat.TEXT, entry), StandardCharsets.UTF_8).trim();
+        LogWriter.LogEntry decoded = LogFormat.TEXT.getLineParser().parse(line);
+
+        assertNotNull(decoded);
+        assertEquals("STAFF", decoded.getChannel());
+        assertEquals("Admin", decoded.getPlayerName());
+        assertEquals("hello: world", decoded.getMessage());
+        assertEquals(timestamp, decoded.getTimestamp());
+        assertNull(LogFormat.TEXT.getLineParser().parse("[not a timestamp] [STAFF] Admin: hi"));
+    }
+
+    @Test
+    void onlyLineFormatsHaveLineParser() {
+        assertNotNull(LogFormat.TEXT.getLineParser());
+        assertNotNull(LogFormat.JSON_LINES.getLineParser());
+        assertNull(LogFormat.BINARY.getLineParser());
+    }
+
+    @Test
+    void fileNames() {
+        assertSame(LogFormat.JSON_LINES, LogFormat.ofFile("staff-2024-01-02_03-04-05.jsonl.gz"));
+        assertSame(LogFormat.BINARY, LogFormat.ofFile("staff.binlog"));
+        assertNull(LogFormat.ofFile("staff.idx"));
+        assertFalse(LogFormat.isLogFile("index.yml"));
+        assertEquals("staff", LogFormat.stripExtension("staff.jsonl.gz"));
+        assertEquals("staff.jsonl", LogFormat.JSON_LINES.fileNameFor("staff.log"));
+        assertSame(LogFormat.TEXT, LogFormat.fromConfig("unknown"));
+        assertSame(LogFormat.JSON_LINES, LogFormat.fromConfig("JSON"));
+    }
+
+    private static byte[] encode(LogFormat format, LogWriter.LogEntry entry) {
+        ByteSink out = new ByteSink(64);
+        byte[] timestamp = LogFormat.formatTimestamp(entry.getTimestamp()).getBytes(StandardCharsets.US_ASCII);
+        format.encode(entry, timestamp, out);
+
+        ByteBuffer buffer = out.toByteBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static LogWriter.LogEntry decodeBinary(byte[] record) {
+        int length = LogFormat.readInt(record, 0);
+        assertEquals(record.length - 4, length);
+        return LogFormat.decodeRecord(record, 4, length);
+    }
+}
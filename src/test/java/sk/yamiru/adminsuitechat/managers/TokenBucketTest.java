@@ -0,0 +1,119 @@
+package sk.yamiru.adminsuitechat.managers;
+
+import org.junit.jupiter.api.Test;
+import sk.yamiru.adminsuitechat.models.RateLimitPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Packed CAS state of {@link AntiSpamManager.TokenBucket}, driven with explicit clock values
+ */
+class TokenBucketTest {
+
+    @Test
+    void burstThenBlock() {
+        RateLimitPolicy policy = new RateLimitPolicy(true, 3, 1, 5);
+        AntiSpamManager.TokenBucket bucket = new AntiSpamManager.TokenBucket(1000, policy.getCapacity());
+
+        assertTrue(bucket.tryAcquire(1000, policy));
+        assertTrue(bucket.tryAcquire(1000, policy));
+        assertTrue(bucket.tryAcquire(1000, policy));
+        // Empty bucket starts a 5 s block
+        assertFalse(bucket.tryAcquire(1000, policy));
+        assertTrue(bucket.isBlocked(1000));
+        assertFalse(bucket.tryAcquire(5999, policy));
+        assertEquals(1, bucket.millisUntilFull(5999, policy));
+
+        // Full again once the block ends
+        assertFalse(bucket.isBlocked(6000));
+        assertTrue(bucket.isFull(6000, policy));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryAcquire(6000, policy));
+        }
+    }
+
+    @Test
+    void refillWithoutBlock() {
+        RateLimitPolicy policy = new RateLimitPolicy(true, 1, 2, 0);
+        AntiSpamManager.TokenBucket bucket = new AntiSpamManager.TokenBucket(0, policy.getCapacity());
+
+        assertTrue(bucket.tryAcquire(0, policy));
+        assertFalse(bucket.tryAcquire(0, policy));
+        assertFalse(bucket.isBlocked(0));
+        // Two messages per second, one token after 500 ms
+        assertFalse(bucket.tryAcquire(499, policy));
+        assertTrue(bucket.tryAcquire(500, policy));
+    }
+
+    @Test
+    void slowRateAccumulatesAcrossFrequentChecks() {
+        // Half a message per second refills less than one milli-token per millisecond
+        RateLimitPolicy policy = new RateLimitPolicy(true, 1, 0.5, 0);
+        AntiSpamManager.TokenBucket bucket = new AntiSpamManager.TokenBucket(0, policy.getCapacity());
+        assertTrue(bucket.tryAcquire(0, policy));
+
+        int allowedAt = -1;
+        for (int now = 1; now <= 3000 && allowedAt < 0; now++) {
+            if (bucket.tryAcquire(now, policy)) {
+                allowedAt = now;
+            }
+        }
+        assertTrue(allowedAt >= 2000 && allowedAt <= 2002, "allowed at " + allowedAt);
+    }
+
+    @Test
+    void migrateCutsTokensAndShortensBlock() {
+        RateLimitPolicy strict = new RateLimitPolicy(true, 1, 1, 60);
+        RateLimitPolicy loose = new RateLimitPolicy(true, 10, 1, 2);
+
+        AntiSpamManager.TokenBucket full = new AntiSpamManager.TokenBucket(0, loose.getCapacity());
+        full.migrate(0, strict);
+        assertTrue(full.tryAcquire(0, strict));
+        assertFalse(full.tryAcquire(0, strict));
+
+        // Blocked for 60 s under the strict policy, the new 2 s block ends earlier
+        AntiSpamManager.TokenBucket blocked = new AntiSpamManager.TokenBucket(0, strict.getCapacity());
+        blocked.tryAcquire(0, strict);
+        blocked.tryAcquire(0, strict);
+        assertTrue(blocked.isBlocked(30_000));
+        blocked.migrate(1000, loose);
+        assertTrue(blocked.isBlocked(2999));
+        assertFalse(blocked.isBlocked(3000));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedCapacity() throws InterruptedException {
+        RateLimitPolicy policy = new RateLimitPolicy(true, 50, 0, 0);
+        AntiSpamManager.TokenBucket bucket = new AntiSpamManager.TokenBucket(0, policy.getCapacity());
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (bucket.tryAcquire(0, policy)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, accepted.get());
+    }
+}
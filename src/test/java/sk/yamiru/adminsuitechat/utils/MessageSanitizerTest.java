@@ -0,0 +1,68 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MessageSanitizerTest {
+
+    @Test
+    void stripsColorCodesAndSlashes() {
+        assertEquals("red bold", MessageSanitizer.sanitize("&cred &lbold"));
+        assertEquals("& not a code &z", MessageSanitizer.sanitize("& not a code &z"));
+        assertEquals("opkick", MessageSanitizer.sanitize("/op\\kick"));
+    }
+
+    @Test
+    void collapsesRepeatedSpecialCharacters() {
+        assertEquals("hi!!!", MessageSanitizer.sanitize("hi!!!!!!!"));
+        assertEquals("???..", MessageSanitizer.sanitize("?????.."));
+        // Letters are not special
+        assertEquals("heyyyyy", MessageSanitizer.sanitize("heyyyyy"));
+    }
+
+    @Test
+    void truncatesBeforeCollapsingAndTrims() {
+        assertEquals("abc", MessageSanitizer.sanitize("  abcdef", 5));
+        assertEquals("ab", MessageSanitizer.sanitize("&aa&bb&cc", 2));
+        assertEquals(MessageSanitizer.MAX_MESSAGE_LENGTH, MessageSanitizer.sanitize("x".repeat(1000)).length());
+        assertEquals("x".repeat(1000), MessageSanitizer.sanitize("x".repeat(1000), 0));
+    }
+
+    @Test
+    void unchangedMessageIsSameInstance() {
+        String message = "nothing to change here";
+        assertSame(message, MessageSanitizer.sanitize(message));
+    }
+
+    @Test
+    void matchesStepByStepReference() {
+        Random random = new Random(11);
+        String alphabet = "&&/\\!!??..aclrz0  ";
+
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder message = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                message.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            int maxLength = random.nextInt(12);
+
+            String input = message.toString();
+            assertEquals(reference(input, maxLength), MessageSanitizer.sanitize(input, maxLength), input + " / " + maxLength);
+        }
+    }
+
+    // The documented pipeline, one pass per step
+    private static String reference(String message, int maxLength) {
+        String result = message.replaceAll("&[0-9a-fk-or]", "").replace("/", "").replace("\\", "");
+        if (maxLength > 0 && result.length() > maxLength) {
+            result = result.substring(0, maxLength);
+        }
+        result = result.replaceAll("([!@#$%^&*()_+=\\[\\]{}|;:'\",.<>?/\\\\`~-])\\1{3,}", "$1$1$1");
+        return result.trim();
+    }
+}
@@ -0,0 +1,100 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelGzipOutputStreamTest {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @Test
+    void multiMemberOutputIsReadableByGzipInputStream() throws IOException {
+        byte[] input = sample(10 * BLOCK_SIZE + 17);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 4, 6, BLOCK_SIZE)) {
+            // Mixed write sizes cross block boundaries at different points
+            int position = 0;
+            int chunk = 1;
+            while (position < input.length) {
+                int length = Math.min(chunk, input.length - position);
+                out.write(input, position, length);
+                position += length;
+                chunk = chunk * 3 % 9000 + 1;
+            }
+            out.write('x');
+        }
+
+        byte[] expected = Arrays.copyOf(input, input.length + 1);
+        expected[input.length] = 'x';
+        assertArrayEquals(expected, gunzip(compressed.toByteArray()));
+    }
+
+    @Test
+    void emptyStreamIsValidGzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed, 1, 6, BLOCK_SIZE).close();
+
+        assertArrayEquals(new byte[0], gunzip(compressed.toByteArray()));
+    }
+
+    @Test
+    void memberListenerReportsEveryMemberInOrder() throws IOException {
+        byte[] input = sample(3 * BLOCK_SIZE + 1);
+        List<long[]> members = new ArrayList<>();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 2, 6, BLOCK_SIZE)) {
+            out.setMemberListener((uncompressed, offset) -> members.add(new long[]{uncompressed, offset}));
+            out.write(input);
+        }
+
+        byte[] archive = compressed.toByteArray();
+        assertEquals(4, members.size());
+        for (int i = 0; i < members.size(); i++) {
+            long[] member = members.get(i);
+            assertEquals((long) i * BLOCK_SIZE, member[0]);
+
+            // Every member can be inflated on its own from its offset
+            byte[] tail = Arrays.copyOfRange(archive, (int) member[1], archive.length);
+            byte[] expected = Arrays.copyOfRange(input, (int) member[0], input.length);
+            assertArrayEquals(expected, gunzip(tail));
+        }
+    }
+
+    @Test
+    void writeAfterCloseFails() throws IOException {
+        ParallelGzipOutputStream out = new ParallelGzipOutputStream(new ByteArrayOutputStream(), 1, 6, BLOCK_SIZE);
+        out.close();
+
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+
+    // Compressible log-like text with some noise, so members differ in size
+    private static byte[] sample(int length) {
+        Random random = new Random(7);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = random.nextInt(8) == 0 ? (byte) random.nextInt(256) : (byte) ('a' + i % 26);
+        }
+        return data;
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ShortcutTrieTest {
+
+    @Test
+    void longestShortcutWins() {
+        ShortcutTrie<String> trie = new ShortcutTrie<>();
+        trie.put("@a", "admin");
+        trie.put("@ad", "admins");
+        trie.put("#", "helpme");
+
+        assertEquals("admin", trie.match("@a hello"));
+        assertEquals("admins", trie.match("@ad hello"));
+        assertEquals("admins", trie.match("@adhello"));
+        assertEquals("helpme", trie.match("# help"));
+        assertNull(trie.match("hello"));
+        assertNull(trie.match("@b hello"));
+    }
+
+    @Test
+    void shortcutNeedsSpaceOrTwoMoreCharacters() {
+        ShortcutTrie<String> trie = new ShortcutTrie<>();
+        trie.put("@a", "admin");
+
+        assertNull(trie.match("@a"));
+        assertNull(trie.match("@ax"));
+        assertEquals("admin", trie.match("@a "));
+        assertEquals("admin", trie.match("@axy"));
+    }
+
+    @Test
+    void firstValueIsKeptAndInvalidInputIgnored() {
+        ShortcutTrie<String> trie = new ShortcutTrie<>();
+        trie.put("@s", "staff");
+        trie.put("@s", "other");
+        trie.put("", "empty");
+        trie.put(null, "null");
+        trie.put("@x", null);
+
+        assertEquals(1, trie.size());
+        assertEquals("staff", trie.match("@s hi"));
+    }
+
+    @Test
+    void matchesLinearScanReference() {
+        Random random = new Random(3);
+        String alphabet = "@#!ab ";
+        List<String> shortcuts = new ArrayList<>();
+        ShortcutTrie<String> trie = new ShortcutTrie<>();
+
+        for (int i = 0; i < 40; i++) {
+            String shortcut = randomText(random, alphabet, 1 + random.nextInt(4));
+            if (!shortcuts.contains(shortcut)) {
+                shortcuts.add(shortcut);
+                trie.put(shortcut, shortcut);
+            }
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            String message = randomText(random, alphabet, random.nextInt(8));
+            assertEquals(reference(shortcuts, message), trie.match(message), message);
+        }
+    }
+
+    // The rule the trie implements, evaluated shortcut by shortcut
+    private static String reference(List<String> shortcuts, String message) {
+        String best = null;
+        for (String shortcut : shortcuts) {
+            int end = shortcut.length();
+            boolean applies = message.startsWith(shortcut) && end < message.length()
+                    && (message.charAt(end) == ' ' || end + 1 < message.length());
+            if (applies && (best == null || shortcut.length() > best.length())) {
+                best = shortcut;
+            }
+        }
+        return best;
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
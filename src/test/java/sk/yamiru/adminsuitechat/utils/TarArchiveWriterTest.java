@@ -0,0 +1,94 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TarArchiveWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsFilesThroughReader() throws IOException {
+        byte[] empty = new byte[0];
+        byte[] small = "[2024-01-02 03:04:05] [STAFF] admin: hello\n".getBytes(StandardCharsets.UTF_8);
+        // Larger than the copy buffer and not a multiple of the 512-byte block
+        byte[] large = new byte[200_000 + 123];
+        new Random(42).nextBytes(large);
+
+        Path emptyFile = write("empty.log", empty);
+        Path smallFile = write("staff.log", small);
+        Path largeFile = write("helpme.log", large);
+        Files.setLastModifiedTime(smallFile, FileTime.fromMillis(1_700_000_000_000L));
+
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        long smallOffset;
+        long largeOffset;
+        try (TarArchiveWriter writer = new TarArchiveWriter(tar)) {
+            writer.putFile(emptyFile);
+            smallOffset = writer.putFile(smallFile);
+            largeOffset = writer.putFile(largeFile);
+            writer.finish();
+            assertEquals(small.length + large.length, writer.getContentBytes());
+            assertEquals(tar.size(), writer.getBytesWritten());
+        }
+
+        byte[] archive = tar.toByteArray();
+        assertEquals(0, archive.length % 512);
+        // Returned offsets point at the content inside the uncompressed stream
+        assertEquals(small[0], archive[(int) smallOffset]);
+        assertEquals(large[0], archive[(int) largeOffset]);
+
+        try (TarArchiveReader reader = new TarArchiveReader(new ByteArrayInputStream(archive))) {
+            assertEntry(reader, "empty.log", empty);
+            TarArchiveReader.Entry entry = assertEntry(reader, "staff.log", small);
+            assertEquals(1_700_000_000_000L, entry.getLastModified());
+            assertEntry(reader, "helpme.log", large);
+            assertNull(reader.nextEntry());
+        }
+    }
+
+    @Test
+    void readerSkipsUnreadContent() throws IOException {
+        Path first = write("a.log", new byte[1000]);
+        Path second = write("b.log", "second".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarArchiveWriter writer = new TarArchiveWriter(tar)) {
+            writer.putFile(first);
+            writer.putFile(second);
+        }
+
+        try (TarArchiveReader reader = new TarArchiveReader(new ByteArrayInputStream(tar.toByteArray()))) {
+            assertNotNull(reader.nextEntry());
+            assertEntry(reader, "b.log", "second".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(directory.resolve(name), content);
+    }
+
+    private static TarArchiveReader.Entry assertEntry(TarArchiveReader reader, String name, byte[] content) throws IOException {
+        TarArchiveReader.Entry entry = reader.nextEntry();
+        assertNotNull(entry);
+        assertEquals(name, entry.getName());
+        assertEquals(content.length, entry.getSize());
+        assertArrayEquals(content, reader.getEntryStream().readAllBytes());
+        return entry;
+    }
+}
@@ -0,0 +1,98 @@
+package sk.yamiru.adminsuitechat.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private static final Logger LOGGER = Logger.getLogger("TimerWheelTest");
+
+    @Test
+    void neverRunsEarly() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(5, LOGGER);
+        wheel.start();
+        try {
+            long[] delays = {0, 1, 7, 30, 55};
+            CountDownLatch done = new CountDownLatch(delays.length);
+            long[] elapsed = new long[delays.length];
+
+            long start = System.nanoTime();
+            for (int i = 0; i < delays.length; i++) {
+                int index = i;
+                wheel.schedule(delays[i], () -> {
+                    elapsed[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < delays.length; i++) {
+                assertTrue(elapsed[i] >= delays[i], "delay " + delays[i] + " ran after " + elapsed[i] + " ms");
+            }
+            assertEquals(0, wheel.getPendingCount());
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void delayLongerThanOneTurnWaitsForItsRound() throws InterruptedException {
+        // 512 slots of 1 ms, so 600 ms passes the task's slot once before it is due
+        TimerWheel wheel = new TimerWheel(1, LOGGER);
+        wheel.start();
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicLong elapsed = new AtomicLong();
+            long start = System.nanoTime();
+
+            wheel.schedule(600, () -> {
+                elapsed.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                done.countDown();
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(elapsed.get() >= 600, "ran after " + elapsed.get() + " ms");
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(5, LOGGER);
+        wheel.start();
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            wheel.schedule(5, () -> {
+                throw new IllegalStateException("expected by the test");
+            });
+            wheel.schedule(20, done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void shutdownDropsPendingTasks() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(5, LOGGER);
+        wheel.start();
+        CountDownLatch ran = new CountDownLatch(1);
+        wheel.schedule(200, ran::countDown);
+        assertEquals(1, wheel.getPendingCount());
+
+        wheel.shutdown();
+
+        assertEquals(0, wheel.getPendingCount());
+        assertFalse(ran.await(400, TimeUnit.MILLISECONDS));
+    }
+}